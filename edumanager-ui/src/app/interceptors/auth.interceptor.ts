@@ -1,43 +1,65 @@
-import { HttpInterceptorFn, HttpErrorResponse } from '@angular/common/http';
+import { HttpInterceptorFn, HttpErrorResponse, HttpRequest } from '@angular/common/http';
 import { inject } from '@angular/core';
 import { Router } from '@angular/router';
-import { catchError, throwError } from 'rxjs';
+import { catchError, switchMap, throwError } from 'rxjs';
 import { AuthService } from '../services/auth.service';
 
 /**
  * HTTP Interceptor that:
  * 1. Adds JWT token to outgoing requests
- * 2. Handles 401 errors (unauthorized) by redirecting to login
+ * 2. On 401, refreshes the short-lived access token once and retries
+ * 3. Redirects to login when the refresh fails too
  */
 export const authInterceptor: HttpInterceptorFn = (req, next) => {
   const authService = inject(AuthService);
   const router = inject(Router);
   
-  // Get the token
-  const token = authService.getToken();
-  
-  // Clone request and add Authorization header if token exists
-  if (token) {
-    req = req.clone({
-      setHeaders: {
-        Authorization: `Bearer ${token}`
-      }
-    });
-  }
-  
+  const isAuthCall = req.url.includes('/auth/');
+
   // Handle the request and catch errors
-  return next(req).pipe(
+  return next(withToken(req, authService.getToken())).pipe(
     catchError((error: HttpErrorResponse) => {
+      if (error.status !== 401) {
+        return throwError(() => error);
+      }
+
+      // Access token expired or revoked: try the refresh token once
+      if (!isAuthCall && authService.getToken()) {
+        return authService.refresh().pipe(
+          switchMap(response => next(withToken(req, response.token))),
+          catchError(refreshError => {
+            redirectToLogin();
+            return throwError(() => refreshError);
+          })
+        );
+      }
+
       // If 401 Unauthorized, logout and redirect to login
-      if (error.status === 401) {
-        authService.logout();
-        router.navigate(['/login'], {
-          queryParams: { returnUrl: router.url }
-        });
+      if (!req.url.includes('/auth/login')) {
+        redirectToLogin();
       }
-      
       return throwError(() => error);
     })
   );
+
+  function redirectToLogin(): void {
+    authService.logout();
+    router.navigate(['/login'], {
+      queryParams: { returnUrl: router.url }
+    });
+  }
 };
 
+/**
+ * Clone request and add Authorization header if token exists
+ */
+function withToken(req: HttpRequest<unknown>, token: string | null): HttpRequest<unknown> {
+  if (!token) {
+    return req;
+  }
+  return req.clone({
+    setHeaders: {
+      Authorization: `Bearer ${token}`
+    }
+  });
+}
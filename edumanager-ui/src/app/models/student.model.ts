@@ -3,6 +3,8 @@ export interface Student {
   name: string;
   email: string;
   phone?: string;
+  version?: number;
+  updatedAt?: string;
 }
 
 export interface ApiResponse<T> {
@@ -12,3 +14,17 @@ export interface ApiResponse<T> {
   timestamp: string;
 }
 
+
+export interface CursorPage<T> {
+  items: T[];
+  nextCursor: string | null;
+  hasMore: boolean;
+  limit: number;
+  sort: string;
+}
+
+export interface StudentSuggestion {
+  id: number;
+  name: string;
+  email: string;
+}
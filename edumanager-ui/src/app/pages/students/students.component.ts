@@ -55,6 +55,9 @@ import { Student } from '../../models/student.model';
           <div class="stats">
             <span class="stat-item">
               <strong>{{ filteredStudents().length }}</strong> students
+              @if (nextCursor()) {
+                loaded
+              }
             </span>
           </div>
         </div>
@@ -148,6 +151,16 @@ import { Student } from '../../models/student.model';
               </div>
             }
           </div>
+          @if (nextCursor()) {
+            <div class="load-more">
+              <button class="btn btn-secondary" (click)="loadMore()" [disabled]="loadingMore()">
+                @if (loadingMore()) {
+                  <span class="spinner"></span>
+                }
+                Load more
+              </button>
+            </div>
+          }
         }
       </div>
     </main>
@@ -360,6 +373,12 @@ import { Student } from '../../models/student.model';
       background: rgba(197, 57, 41, 0.08) !important;
     }
 
+    .load-more {
+      display: flex;
+      justify-content: center;
+      margin-top: var(--space-xl);
+    }
+
     /* Modal */
     .modal-overlay {
       position: fixed;
@@ -408,8 +427,12 @@ import { Student } from '../../models/student.model';
   `]
 })
 export class StudentsComponent implements OnInit {
+  private static readonly PAGE_SIZE = 50;
+
   students = signal<Student[]>([]);
+  nextCursor = signal<string | null>(null);
   loading = signal(true);
+  loadingMore = signal(false);
   error = signal('');
   searchTerm = '';
   studentToDelete = signal<Student | null>(null);
@@ -438,9 +461,10 @@ export class StudentsComponent implements OnInit {
     this.loading.set(true);
     this.error.set('');
     
-    this.studentService.getAll().subscribe({
-      next: (students) => {
-        this.students.set(students);
+    this.studentService.getPage(StudentsComponent.PAGE_SIZE).subscribe({
+      next: (page) => {
+        this.students.set(page.items);
+        this.nextCursor.set(page.nextCursor);
         this.loading.set(false);
       },
       error: (err) => {
@@ -450,6 +474,25 @@ export class StudentsComponent implements OnInit {
     });
   }
 
+  loadMore(): void {
+    const after = this.nextCursor();
+    if (!after || this.loadingMore()) return;
+
+    this.loadingMore.set(true);
+
+    this.studentService.getPage(StudentsComponent.PAGE_SIZE, after).subscribe({
+      next: (page) => {
+        this.students.update(list => [...list, ...page.items]);
+        this.nextCursor.set(page.nextCursor);
+        this.loadingMore.set(false);
+      },
+      error: (err) => {
+        this.loadingMore.set(false);
+        this.showToast(err.error?.message || 'Failed to load more students', 'error');
+      }
+    });
+  }
+
   onSearch(): void {
     // Filtering is handled by computed signal
   }
@@ -1,12 +1,13 @@
 import { Injectable, signal, computed } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Router } from '@angular/router';
-import { Observable, tap, catchError, throwError } from 'rxjs';
+import { Observable, tap, catchError, throwError, finalize, shareReplay } from 'rxjs';
 import { LoginRequest, LoginResponse, User } from '../models/auth.model';
 import { environment } from '../../environments/environment';
 
 const TOKEN_KEY = 'edu_token';
 const USER_KEY = 'edu_user';
+const REFRESH_TOKEN_KEY = 'edu_refresh_token';
 
 @Injectable({
   providedIn: 'root'
@@ -26,6 +27,9 @@ export class AuthService {
   });
   readonly username = computed(() => this.currentUserSignal()?.username ?? '');
 
+  // In-flight refresh, shared so parallel 401s trigger a single refresh call
+  private refreshInFlight: Observable<LoginResponse> | null = null;
+
   constructor(
     private http: HttpClient,
     private router: Router
@@ -48,10 +52,36 @@ export class AuthService {
   }
 
   /**
-   * Logout and clear storage
+   * Exchange the stored refresh token for a new access token.
+   * The refresh token rotates, so the new one replaces it in storage.
+   */
+  refresh(): Observable<LoginResponse> {
+    if (!this.refreshInFlight) {
+      const refreshToken = localStorage.getItem(REFRESH_TOKEN_KEY);
+      if (!refreshToken) {
+        return throwError(() => new Error('No refresh token'));
+      }
+      this.refreshInFlight = this.http.post<LoginResponse>(`${this.apiUrl}/refresh`, { refreshToken })
+        .pipe(
+          tap(response => this.saveAuth(response)),
+          finalize(() => this.refreshInFlight = null),
+          shareReplay(1)
+        );
+    }
+    return this.refreshInFlight;
+  }
+
+  /**
+   * Logout, revoke the tokens on the server and clear storage
    */
   logout(): void {
+    const refreshToken = localStorage.getItem(REFRESH_TOKEN_KEY);
+    if (this.getToken()) {
+      // Fire and forget: local logout does not wait for the server
+      this.http.post(`${this.apiUrl}/logout`, { refreshToken }).subscribe({ error: () => {} });
+    }
     localStorage.removeItem(TOKEN_KEY);
+    localStorage.removeItem(REFRESH_TOKEN_KEY);
     localStorage.removeItem(USER_KEY);
     this.currentUserSignal.set(null);
     this.router.navigate(['/login']);
@@ -83,6 +113,7 @@ export class AuthService {
     };
     
     localStorage.setItem(TOKEN_KEY, response.token);
+    localStorage.setItem(REFRESH_TOKEN_KEY, response.refreshToken);
     localStorage.setItem(USER_KEY, JSON.stringify(user));
     this.currentUserSignal.set(user);
   }
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
 import { HttpClient } from '@angular/common/http';
 import { Observable, map } from 'rxjs';
-import { Student, ApiResponse } from '../models/student.model';
+import { Student, ApiResponse, CursorPage, StudentSuggestion } from '../models/student.model';
 import { environment } from '../../environments/environment';
 
 @Injectable({
@@ -13,10 +13,14 @@ export class StudentService {
   constructor(private http: HttpClient) {}
 
   /**
-   * Get all students
+   * Get one keyset page of students (pass nextCursor of the previous page as `after`)
    */
-  getAll(): Observable<Student[]> {
-    return this.http.get<ApiResponse<Student[]>>(this.apiUrl)
+  getPage(limit = 50, after?: string, sort = 'id'): Observable<CursorPage<Student>> {
+    const params: Record<string, string> = { limit: String(limit), sort };
+    if (after) {
+      params['after'] = after;
+    }
+    return this.http.get<ApiResponse<CursorPage<Student>>>(this.apiUrl, { params })
       .pipe(map(response => response.data));
   }
 
@@ -29,11 +33,23 @@ export class StudentService {
   }
 
   /**
-   * Search students by name
+   * Search students by name, one keyset page at a time (pass nextCursor of the previous page as `after`)
    */
-  search(name: string): Observable<Student[]> {
-    return this.http.get<ApiResponse<Student[]>>(`${this.apiUrl}/search`, {
-      params: { name }
+  search(name: string, limit = 20, after?: string): Observable<CursorPage<Student>> {
+    const params: Record<string, string> = { name, limit: String(limit) };
+    if (after) {
+      params['after'] = after;
+    }
+    return this.http.get<ApiResponse<CursorPage<Student>>>(`${this.apiUrl}/search`, { params })
+      .pipe(map(response => response.data));
+  }
+
+  /**
+   * Autocomplete students by name or email prefix
+   */
+  suggest(prefix: string, limit = 10): Observable<StudentSuggestion[]> {
+    return this.http.get<ApiResponse<StudentSuggestion[]>>(`${this.apiUrl}/suggest`, {
+      params: { prefix, limit: String(limit) }
     }).pipe(map(response => response.data));
   }
 
@@ -2,6 +2,8 @@ package com.example.edumanager;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Main entry point for the EduManager Spring Boot application.
@@ -13,6 +15,8 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  * - Role-based authorization
  */
 @SpringBootApplication
+@EnableCaching
+@EnableScheduling
 public class EdumanagerApplication {
 
     public static void main(String[] args) {
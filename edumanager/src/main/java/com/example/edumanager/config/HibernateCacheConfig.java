@@ -0,0 +1,63 @@
+package com.example.edumanager.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.util.OptionalLong;
+
+/**
+ * Hibernate second-level and query cache.
+ *
+ * Hibernate's JCache region factory (hibernate.cache.region.factory_class
+ * in application.yml) is handed a Caffeine-backed JCache CacheManager
+ * holding one cache per hibernate-cache.regions entry, so each region gets
+ * its own size and TTL. This CacheManager is separate from Spring's cache
+ * abstraction (spring.cache.*), which caches service-level results above it.
+ *
+ * With hibernate.generate_statistics on, Boot binds Hibernate's statistics
+ * to Micrometer: per-region hits and misses are under
+ * /actuator/metrics/hibernate.second.level.cache.requests, query cache
+ * lookups under hibernate.cache.query.requests and statements sent under
+ * hibernate.statements.
+ */
+@Configuration
+@EnableConfigurationProperties(HibernateCacheProperties.class)
+public class HibernateCacheConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HibernateCacheConfig.class);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(HibernateCacheProperties properties) {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(
+                CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(),
+                HibernateCacheConfig.class.getClassLoader());
+        properties.regions().forEach((name, region) -> {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(region.maxEntries()));
+            if (region.ttl() != null) {
+                configuration.setExpireAfterWrite(OptionalLong.of(region.ttl().toNanos()));
+            }
+            // Hibernate stores immutable, disassembled entries; copying them on every access buys nothing
+            configuration.setStoreByValue(false);
+            cacheManager.createCache(name, configuration);
+            logger.debug("Hibernate cache region '{}': max {} entries, ttl {}", name,
+                    region.maxEntries(), region.ttl() != null ? region.ttl() : "none");
+        });
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheManagerCustomizer(CacheManager hibernateCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.edumanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Hibernate second-level cache regions (prefix "hibernate-cache").
+ *
+ * Every region Hibernate uses must be listed: entity and collection regions
+ * (see the @Cache annotations), query regions (see the cacheable repository
+ * queries) and Hibernate's own default-query-results-region and
+ * default-update-timestamps-region. A missing one fails startup.
+ *
+ * @param regions region settings by region name
+ */
+@ConfigurationProperties(prefix = "hibernate-cache")
+public record HibernateCacheProperties(@DefaultValue Map<String, Region> regions) {
+
+    /**
+     * Size and lifetime of one region.
+     *
+     * @param maxEntries entries kept before the least valuable are evicted
+     * @param ttl        how long an entry lives after it is written; null for no expiry
+     *                   (required for default-update-timestamps-region, whose entries
+     *                   decide whether cached query results are still valid)
+     */
+    public record Region(@DefaultValue("10000") long maxEntries, Duration ttl) {
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.edumanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sizes the Hikari pool for virtual-thread mode.
+ * 
+ * With platform threads, Tomcat's worker pool limits how many requests can
+ * wait for a connection. With virtual threads there is no such limit, so a
+ * large pool would only move the contention into the database. The pool is
+ * sized for the database instead: cores * 2 + effective spindles (the
+ * HikariCP pool sizing guideline), where spindles is db.pool.effective-spindles
+ * (1 for SSD/in-memory). An explicit spring.datasource.hikari.maximum-pool-size
+ * always wins.
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class HikariPoolSizing implements BeanPostProcessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(HikariPoolSizing.class);
+
+    private final Environment environment;
+    private final int effectiveSpindles;
+
+    public HikariPoolSizing(Environment environment,
+                            @Value("${db.pool.effective-spindles:1}") int effectiveSpindles) {
+        this.environment = environment;
+        this.effectiveSpindles = effectiveSpindles;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource
+                && !environment.containsProperty("spring.datasource.hikari.maximum-pool-size")) {
+            int poolSize = Runtime.getRuntime().availableProcessors() * 2 + effectiveSpindles;
+            dataSource.setMaximumPoolSize(poolSize);
+            logger.info("Virtual threads enabled: Hikari pool '{}' sized to {} connections",
+                    beanName, poolSize);
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.edumanager.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread.
+ * 
+ * A virtual thread that blocks inside a synchronized block or native frame
+ * (common in older JDBC drivers and connection pools) holds its carrier
+ * thread, which defeats virtual threads under load. This listens to the JFR
+ * event jdk.VirtualThreadPinned in-process: every pinning longer than
+ * diagnostics.pinning.threshold counts towards jvm.threads.virtual.pinned,
+ * and each distinct stack is logged once.
+ * 
+ * For a stack trace on every occurrence, start the JVM with
+ * -Djdk.tracePinnedThreads=short (or =full). Set diagnostics.pinning.enabled
+ * to false to skip the JFR stream (e.g. for benchmark runs).
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "diagnostics.pinning.enabled", havingValue = "true", matchIfMissing = true)
+public class PinnedThreadMonitor implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(PinnedThreadMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private final Set<String> reportedStacks = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream stream;
+
+    public PinnedThreadMonitor(@Value("${diagnostics.pinning.threshold:20ms}") Duration threshold,
+                               MeterRegistry meterRegistry) {
+        this.threshold = threshold;
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier longer than the threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        this.stream = recording;
+        logger.info("Watching for virtual threads pinned longer than {}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = this.stream;
+        if (recording != null) {
+            recording.close();
+            this.stream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        if (event.getStackTrace() == null) {
+            return;
+        }
+        String stack = event.getStackTrace().getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(PinnedThreadMonitor::describe)
+                .collect(Collectors.joining("\n    at "));
+        if (reportedStacks.add(stack)) {
+            logger.warn("Virtual thread pinned for {} ms:\n    at {}",
+                    event.getDuration().toMillis(), stack);
+        }
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.edumanager.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.TaskScheduler;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica routing ("replicas" profile).
+ *
+ * Replaces Boot's single DataSource with three layers:
+ * - "primaryDataSource": the usual Hikari pool on spring.datasource.*
+ * - one Hikari pool per datasource.replicas.nodes entry, inside the router
+ * - the @Primary "dataSource": a LazyConnectionDataSourceProxy over the
+ *   ReadReplicaRoutingDataSource, so a connection is only chosen at the
+ *   first statement, once the transaction's read-only flag is known
+ *
+ * JPA, JdbcTemplate and the transaction manager all use the @Primary one.
+ */
+@Configuration
+@Profile("replicas")
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public ReadReplicaRoutingDataSource readReplicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                                     DataSourceProperties primaryProperties,
+                                                                     ReadReplicaProperties properties,
+                                                                     MeterRegistry meterRegistry,
+                                                                     TaskScheduler taskScheduler,
+                                                                     ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.nodes().size(); i++) {
+            ReadReplicaProperties.Node node = properties.nodes().get(i);
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(node.url());
+            replica.setUsername(node.username() != null ? node.username() : primaryProperties.determineUsername());
+            replica.setPassword(node.password() != null ? node.password() : primaryProperties.determinePassword());
+            replica.setMaximumPoolSize(properties.poolSize());
+            replica.setConnectionTimeout(properties.connectionTimeout().toMillis());
+            replica.setReadOnly(true);
+            // Start even if a replica is down; the router falls back to the primary
+            replica.setInitializationFailTimeout(-1);
+            replica.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            replicas.add(replica);
+        }
+        ReadReplicaRoutingDataSource routingDataSource = new ReadReplicaRoutingDataSource(
+                primaryDataSource, replicas, properties.readYourWrites(), meterRegistry,
+                entityManagerFactory);
+        taskScheduler.scheduleWithFixedDelay(routingDataSource::checkReplicas,
+                properties.healthCheckInterval());
+        return routingDataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadReplicaRoutingDataSource readReplicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readReplicaRoutingDataSource);
+    }
+}
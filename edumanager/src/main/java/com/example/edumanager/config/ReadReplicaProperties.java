@@ -0,0 +1,37 @@
+package com.example.edumanager.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Read replica settings (prefix "datasource.replicas", used by the "replicas" profile).
+ *
+ * @param nodes               replica databases; read-only transactions are spread over them
+ * @param poolSize            connections per replica pool
+ * @param connectionTimeout   how long to wait for a replica connection before falling back to the primary
+ * @param healthCheckInterval how often every replica is probed (and taken in or out of rotation)
+ * @param readYourWrites      after a client's read-write transaction commits, send its reads to the
+ *                            primary for this long (so it sees its own writes despite replication lag);
+ *                            0 turns pinning off
+ */
+@ConfigurationProperties(prefix = "datasource.replicas")
+public record ReadReplicaProperties(
+        @DefaultValue List<Node> nodes,
+        @DefaultValue("10") int poolSize,
+        @DefaultValue("2s") Duration connectionTimeout,
+        @DefaultValue("5s") Duration healthCheckInterval,
+        @DefaultValue("5s") Duration readYourWrites) {
+
+    /**
+     * One replica. Username and password default to the primary's (spring.datasource.*).
+     *
+     * @param url      JDBC URL
+     * @param username database user, or null for the primary's
+     * @param password password, or null for the primary's
+     */
+    public record Node(String url, String username, String password) {
+    }
+}
@@ -0,0 +1,284 @@
+package com.example.edumanager.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * DataSource that sends read-only transactions to read replicas.
+ *
+ * A connection is taken from a replica when the current transaction is
+ * read-only (@Transactional(readOnly = true)); everything else - read-write
+ * transactions and work outside any transaction - goes to the primary.
+ * Replicas are used round-robin. Only healthy ones are picked: a replica
+ * whose connection attempt fails is taken out of rotation at once, and
+ * checkReplicas() probes all of them periodically to bring them back. A
+ * replica whose pool is merely exhausted stays in rotation; the read just
+ * moves on to the next replica. With no replica left, reads go to the primary.
+ *
+ * Replica reads may lag behind the primary, so a transaction that reads from
+ * a replica must not fill the shared caches: its Hibernate session is switched
+ * to CacheMode.GET (no second-level or query cache puts), and the application
+ * caches only store a load if readFromReplicaSince(mark) is false.
+ *
+ * Read-your-writes: once a read-write transaction of an authenticated user
+ * commits, that user's reads stay on the primary for
+ * datasource.replicas.read-your-writes, long enough for the replicas to
+ * catch up. Anonymous requests are never pinned.
+ *
+ * The decision needs the transaction's read-only flag, which Spring sets
+ * after the transaction manager asks for a connection, so this must sit
+ * behind a LazyConnectionDataSourceProxy (see ReadReplicaConfig); with
+ * open-in-view, a request would also keep its first connection for every
+ * later transaction, so the "replicas" profile switches it off.
+ *
+ * Routing decisions are counted in db.routing.connections{target,reason}.
+ */
+public class ReadReplicaRoutingDataSource extends AbstractDataSource implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReadReplicaRoutingDataSource.class);
+
+    // Bound to the current transaction once it has a replica connection
+    private static final Object REPLICA_READ = new Object();
+    // Replica connections handed out per thread; also catches inner transactions that already ended
+    private static final ThreadLocal<long[]> replicaReads = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    // Users with a recent read-write commit; null when pinning is off
+    private final Cache<String, Boolean> recentWriters;
+    private final Counter writes;
+    private final Counter pinnedReads;
+    private final Counter fallbackReads;
+    // Lazy: the EntityManagerFactory is built on top of this DataSource
+    private final ObjectProvider<EntityManagerFactory> entityManagerFactory;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, List<HikariDataSource> replicas,
+                                        Duration readYourWrites, MeterRegistry meterRegistry,
+                                        ObjectProvider<EntityManagerFactory> entityManagerFactory) {
+        this.primary = primary;
+        this.entityManagerFactory = entityManagerFactory;
+        this.replicas = replicas.stream()
+                .map(dataSource -> new Replica(dataSource, routingCounter(meterRegistry,
+                        dataSource.getPoolName(), "read")))
+                .toList();
+        this.recentWriters = readYourWrites.isZero() ? null : Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .maximumSize(100_000)
+                .build();
+        this.writes = routingCounter(meterRegistry, "primary", "read-write");
+        this.pinnedReads = routingCounter(meterRegistry, "primary", "pinned");
+        this.fallbackReads = routingCounter(meterRegistry, "primary", "fallback");
+        Gauge.builder("db.routing.replicas.healthy", this.replicas,
+                        all -> all.stream().filter(replica -> replica.healthy).count())
+                .description("Read replicas currently in rotation")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            pinAfterCommit();
+            writes.increment();
+            return primary.getConnection();
+        }
+        String client = currentClient();
+        if (client != null && recentWriters != null && recentWriters.getIfPresent(client) != null) {
+            pinnedReads.increment();
+            return primary.getConnection();
+        }
+        // Each attempt starts at the next replica, so every one gets at most about one try
+        for (int attempt = 0; attempt < replicas.size(); attempt++) {
+            Replica replica = nextHealthyReplica();
+            if (replica == null) {
+                break;
+            }
+            try {
+                Connection connection = replica.dataSource.getConnection();
+                replica.reads.increment();
+                replicaReads.get()[0]++;
+                keepOutOfSharedCaches();
+                return connection;
+            } catch (SQLException e) {
+                if (isPoolExhausted(e)) {
+                    // Busy, not broken: try the next node and leave health to checkReplicas()
+                    logger.debug("Read replica {} has no free connection", replica.name());
+                } else {
+                    markDown(replica, e);
+                }
+            }
+        }
+        fallbackReads.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Per-call credentials are not supported by the routing DataSource");
+    }
+
+    /**
+     * Probe every replica and update the rotation
+     * (scheduled every datasource.replicas.health-check-interval by ReadReplicaConfig).
+     */
+    public void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection()) {
+                if (connection.isValid(1)) {
+                    if (!replica.healthy) {
+                        replica.healthy = true;
+                        logger.info("Read replica {} is back in rotation", replica.name());
+                    }
+                } else {
+                    markDown(replica, null);
+                }
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    /**
+     * Mark to take before a load that may be cached; see readFromReplicaSince.
+     */
+    public static long replicaReadMark() {
+        return replicaReads.get()[0];
+    }
+
+    /**
+     * Whether a load since the mark may have read from a replica, whose rows
+     * can be older than the primary's; such loads must not go into shared
+     * caches. True if the current transaction holds a replica connection or
+     * the thread got one since the mark (e.g. in a repository's own
+     * transaction that has already completed).
+     */
+    public static boolean readFromReplicaSince(long mark) {
+        return TransactionSynchronizationManager.hasResource(REPLICA_READ)
+                || replicaReads.get()[0] != mark;
+    }
+
+    @Override
+    public void destroy() {
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    private Replica nextHealthyReplica() {
+        int count = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(count, 1));
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get((start + i) % count);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private void markDown(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            logger.warn("Read replica {} taken out of rotation: {}", replica.name(),
+                    cause != null ? cause.getMessage() : "connection not valid");
+        }
+    }
+
+    // Hikari times out without a cause when every connection is in use; with a cause the node failed
+    private static boolean isPoolExhausted(SQLException e) {
+        return e instanceof SQLTransientConnectionException && e.getCause() == null;
+    }
+
+    // Mark the transaction as a replica read and stop its session from writing to the L2/query caches
+    private void keepOutOfSharedCaches() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(REPLICA_READ)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(REPLICA_READ, Boolean.TRUE);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(REPLICA_READ);
+            }
+        });
+        EntityManagerFactory factory = entityManagerFactory.getIfAvailable();
+        if (factory != null
+                && TransactionSynchronizationManager.getResource(factory) instanceof EntityManagerHolder holder) {
+            holder.getEntityManager().unwrap(Session.class).setCacheMode(CacheMode.GET);
+        }
+    }
+
+    // Pin the current user to the primary once this (read-write) transaction commits
+    private void pinAfterCommit() {
+        if (recentWriters == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String client = currentClient();
+        if (client == null) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recentWriters.put(client, Boolean.TRUE);
+            }
+        });
+    }
+
+    private static String currentClient() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    private static Counter routingCounter(MeterRegistry meterRegistry, String target, String reason) {
+        return Counter.builder("db.routing.connections")
+                .description("Connections handed out by the routing DataSource")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static final class Replica {
+        final HikariDataSource dataSource;
+        final Counter reads;
+        volatile boolean healthy = true;
+
+        Replica(HikariDataSource dataSource, Counter reads) {
+            this.dataSource = dataSource;
+            this.reads = reads;
+        }
+
+        String name() {
+            return dataSource.getPoolName();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.edumanager.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Creates the indexes behind /api/students/search on startup.
+ * 
+ * Hibernate's schema update cannot express expression or GIN indexes, so
+ * they are created here (idempotently) once the tables exist:
+ * - idx_students_name_trgm: GIN (lower(name) gin_trgm_ops) to find "%term%" matches
+ * - idx_students_name_key:  B-tree ((lower(name) COLLATE "C"), id), the search order;
+ *   serves "term%" searches and keyset pages of common substrings without a sort
+ * 
+ * The key index replaces the earlier idx_students_name_prefix (lower(name)
+ * text_pattern_ops), which found prefix matches but could not return them in order.
+ * 
+ * Only PostgreSQL is supported. On H2 (dev profile) search falls back to a
+ * bounded LIKE scan, which is fine for the small in-memory data sets it holds.
+ */
+@Component
+public class SearchIndexInitializer implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexInitializer.class);
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+
+    public SearchIndexInitializer(DataSource dataSource, JdbcTemplate jdbcTemplate) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void run(String... args) {
+        String product = databaseProductName();
+        if (!"PostgreSQL".equalsIgnoreCase(product)) {
+            logger.info("Search indexes skipped for {} - using bounded LIKE fallback", product);
+            return;
+        }
+
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_students_name_trgm "
+                    + "ON students USING gin (lower(name) gin_trgm_ops)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_students_name_key "
+                    + "ON students ((lower(name) COLLATE \"C\"), id)");
+            jdbcTemplate.execute("DROP INDEX IF EXISTS idx_students_name_prefix");
+            logger.info("Student search indexes are in place (pg_trgm)");
+        } catch (Exception e) {
+            // Typically a missing CREATE privilege for the extension; search still works, just slower
+            logger.warn("Could not create student search indexes: {}", e.getMessage());
+        }
+    }
+
+    private String databaseProductName() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getMetaData().getDatabaseProductName();
+        } catch (SQLException e) {
+            logger.warn("Could not determine database type: {}", e.getMessage());
+            return "unknown";
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.edumanager.config;
+
+import com.example.edumanager.entity.Student;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves existing student tables from IDENTITY ids to the students_seq sequence.
+ *
+ * Schema update creates students_seq starting at 1, which would collide with
+ * rows inserted while ids were IDENTITY-generated. Before the application takes
+ * requests this:
+ * - drops the IDENTITY default from students.id on PostgreSQL, so the sequence
+ *   is the only id source (also on an empty table)
+ * - restarts the sequence past the highest existing id (only if it is behind)
+ *
+ * The sequence position is read from the catalog rather than with nextval, so
+ * a startup does not burn an id block. Idempotent: once migrated it only costs
+ * a few catalog reads per startup.
+ */
+@Component
+public class StudentIdSequenceMigration {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentIdSequenceMigration.class);
+
+    private static final String SEQUENCE = "students_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Dialect dialect;
+
+    // Taking the EntityManagerFactory makes this run after schema update created the sequence
+    public StudentIdSequenceMigration(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+    }
+
+    @PostConstruct
+    void migrate() {
+        if (dialect instanceof PostgreSQLDialect) {
+            dropIdentity();
+        }
+
+        Long maxId = jdbcTemplate.queryForObject("SELECT max(id) FROM students", Long.class);
+        if (maxId == null) {
+            return;
+        }
+
+        // With the pooled optimizer a sequence value v hands out ids v-49..v
+        long next = nextSequenceValue();
+        if (next - Student.ID_ALLOCATION_SIZE < maxId) {
+            long restart = maxId + Student.ID_ALLOCATION_SIZE;
+            jdbcTemplate.execute("ALTER SEQUENCE " + SEQUENCE + " RESTART WITH " + restart);
+            logger.info("Restarted {} at {} (highest student id {})", SEQUENCE, restart, maxId);
+        }
+    }
+
+    // Checked first, so a migrated table is not locked by an ALTER TABLE on every startup
+    private void dropIdentity() {
+        String identity = jdbcTemplate.queryForObject(
+                "SELECT is_identity FROM information_schema.columns "
+                        + "WHERE table_schema = current_schema() AND table_name = 'students' "
+                        + "AND column_name = 'id'", String.class);
+        if ("YES".equals(identity)) {
+            jdbcTemplate.execute("ALTER TABLE students ALTER COLUMN id DROP IDENTITY IF EXISTS");
+            logger.info("Dropped IDENTITY from students.id");
+        }
+    }
+
+    /**
+     * The value the next nextval call would return, without calling it.
+     */
+    private long nextSequenceValue() {
+        if (dialect instanceof PostgreSQLDialect) {
+            // last_value is null until the first nextval
+            return jdbcTemplate.queryForObject(
+                    "SELECT coalesce(last_value + increment_by, start_value) FROM pg_sequences "
+                            + "WHERE schemaname = current_schema() AND sequencename = ?",
+                    Long.class, SEQUENCE);
+        } else if (dialect instanceof H2Dialect) {
+            return jdbcTemplate.queryForObject(
+                    "SELECT base_value FROM information_schema.sequences "
+                            + "WHERE sequence_schema = current_schema AND sequence_name = ?",
+                    Long.class, SEQUENCE.toUpperCase());
+        }
+        return jdbcTemplate.queryForObject(
+                dialect.getSequenceSupport().getSequenceNextValString(SEQUENCE), Long.class);
+    }
+}
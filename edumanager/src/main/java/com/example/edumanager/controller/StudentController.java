@@ -1,17 +1,48 @@
 package com.example.edumanager.controller;
 
 import com.example.edumanager.dto.ApiResponse;
+import com.example.edumanager.dto.CursorPage;
+import com.example.edumanager.dto.ImportJobStatus;
+import com.example.edumanager.dto.StudentBatchResult;
+import com.example.edumanager.dto.StudentChangeFeed;
+import com.example.edumanager.dto.StudentIdsRequest;
+import com.example.edumanager.dto.StudentSearchHit;
+import com.example.edumanager.dto.StudentSort;
+import com.example.edumanager.dto.StudentSuggestion;
+import com.example.edumanager.dto.StudentPatch;
+import com.example.edumanager.dto.StudentVersion;
 import com.example.edumanager.entity.Student;
+import com.example.edumanager.exception.BadRequestException;
+import com.example.edumanager.exception.VersionConflictException;
+import com.example.edumanager.search.StudentSearchIndex;
+import com.example.edumanager.search.StudentSuggester;
+import com.example.edumanager.service.StudentChangeLog;
+import com.example.edumanager.service.StudentChangeStream;
+import com.example.edumanager.service.StudentExportService;
+import com.example.edumanager.service.StudentImportService;
 import com.example.edumanager.service.StudentService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Student REST Controller.
@@ -19,12 +50,29 @@ import java.util.List;
  * Provides CRUD operations for Student entity.
  * 
  * Endpoints:
- * - GET    /api/students        - Get all students (public)
+ * - GET    /api/students        - List students, keyset-paginated (public)
  * - GET    /api/students/{id}   - Get student by ID (public)
  * - GET    /api/students/search - Search students by name (public)
+ * - GET    /api/students/search/ranked - Ranked fuzzy search on name/email/phone (public)
+ * - GET    /api/students/suggest - Autocomplete on name/email prefix (public)
+ * - GET    /api/students/export - Stream all students as NDJSON or CSV (public)
+ * - GET    /api/students/changes - Creates, updates and deletes since a cursor (public)
+ * - GET    /api/students/stream - Push changes as Server-Sent Events (public)
+ * - POST   /api/students/batch-get - Get up to 500 students by ID (public)
+ * - POST   /api/students/batch-delete - Delete up to 500 students by ID (ADMIN only)
  * - POST   /api/students        - Create new student (authenticated)
+ * - POST   /api/students/import - Start a bulk CSV/JSON import job (authenticated)
+ * - GET    /api/students/import/{jobId} - Import job progress (job owner or ADMIN)
+ * - GET    /api/students/import/{jobId}/errors - Rejected rows as CSV (job owner or ADMIN)
  * - PUT    /api/students/{id}   - Update student (authenticated)
+ * - PATCH  /api/students/{id}   - Update only the given fields (authenticated)
  * - DELETE /api/students/{id}   - Delete student (ADMIN only)
+ * 
+ * Conditional GET: single records carry a strong ETag (id + version) and
+ * Last-Modified; list, page and search responses carry a weak ETag over the
+ * ids and versions they contain. A matching If-None-Match / If-Modified-Since
+ * gets 304 Not Modified without a body. PUT and PATCH honour If-Match with
+ * the same strong ETag and answer 412 Precondition Failed when it is stale.
  */
 @RestController
 @RequestMapping("/api/students")
@@ -34,35 +82,80 @@ public class StudentController {
     private static final Logger logger = LoggerFactory.getLogger(StudentController.class);
 
     private final StudentService studentService;
+    private final StudentExportService studentExportService;
+    private final StudentImportService studentImportService;
+    private final StudentSearchIndex studentSearchIndex;
+    private final StudentSuggester studentSuggester;
+    private final StudentChangeLog studentChangeLog;
+    private final StudentChangeStream studentChangeStream;
 
-    public StudentController(StudentService studentService) {
+    public StudentController(StudentService studentService,
+                             StudentExportService studentExportService,
+                             StudentImportService studentImportService,
+                             StudentSearchIndex studentSearchIndex,
+                             StudentSuggester studentSuggester,
+                             StudentChangeLog studentChangeLog,
+                             StudentChangeStream studentChangeStream) {
         this.studentService = studentService;
+        this.studentExportService = studentExportService;
+        this.studentImportService = studentImportService;
+        this.studentSearchIndex = studentSearchIndex;
+        this.studentSuggester = studentSuggester;
+        this.studentChangeLog = studentChangeLog;
+        this.studentChangeStream = studentChangeStream;
     }
 
     /**
-     * Get all students.
+     * List students one page at a time.
      * Public endpoint - no authentication required.
      * 
-     * Example: GET /api/students
+     * Uses keyset pagination: pass the nextCursor of the previous page as "after".
+     * 
+     * Example: GET /api/students?limit=50&sort=name
+     * Example: GET /api/students?limit=50&sort=name&after=MTJ8Sm9obiBEb2U
      */
     @GetMapping
-    public ResponseEntity<ApiResponse<List<Student>>> getAllStudents() {
-        logger.debug("Fetching all students");
-        List<Student> students = studentService.findAll();
-        return ResponseEntity.ok(ApiResponse.success("Students retrieved successfully", students));
+    public ResponseEntity<ApiResponse<CursorPage<Student>>> getAllStudents(
+            @RequestParam(defaultValue = "" + StudentService.DEFAULT_PAGE_SIZE) int limit,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "id") String sort) {
+        logger.debug("Fetching students page: limit={}, sort={}, after={}", limit, sort, after);
+        CursorPage<Student> page = studentService.findPage(StudentSort.fromParam(sort), after, limit);
+        return ResponseEntity.ok()
+                .eTag(weakEtagOf(page.getItems(), page.getNextCursor()))
+                .body(ApiResponse.success("Students retrieved successfully", page));
     }
 
     /**
      * Get student by ID.
      * Public endpoint - no authentication required.
      * 
+     * Conditional requests are answered from the student's version alone,
+     * so a 304 never loads or serializes the full record.
+     * 
      * Example: GET /api/students/1
+     * Example: GET /api/students/1  (If-None-Match: "1.3")  -> 304 if still at version 3
      */
     @GetMapping("/{id}")
-    public ResponseEntity<ApiResponse<Student>> getStudentById(@PathVariable Long id) {
+    public ResponseEntity<ApiResponse<Student>> getStudentById(@PathVariable Long id,
+                                                               WebRequest request) {
         logger.debug("Fetching student with id: {}", id);
+
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            Optional<StudentVersion> version = studentService.findVersion(id);
+            if (version.isPresent() && request.checkNotModified(
+                    version.get().etag(), version.get().updatedAt().toEpochMilli())) {
+                // 304 status and validator headers have been set by checkNotModified
+                return null;
+            }
+        }
+
         return studentService.findById(id)
-                .map(student -> ResponseEntity.ok(ApiResponse.success("Student found", student)))
+                .map(student -> ResponseEntity.ok()
+                        .eTag(StudentVersion.of(student).etag())
+                        .lastModified(student.getUpdatedAt())
+                        .body(ApiResponse.success("Student found", student)))
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(ApiResponse.error("Student not found with id: " + id)));
     }
@@ -71,14 +164,130 @@ public class StudentController {
      * Search students by name.
      * Public endpoint - no authentication required.
      * 
+     * Results are ordered by name and keyset-paginated like the listing:
+     * pass nextCursor back as "after" for the next page.
+     * 
      * Example: GET /api/students/search?name=John
+     * Example: GET /api/students/search?name=John&limit=20&after=U0VBUkNIfDQyfEpvaG4
      */
     @GetMapping("/search")
-    public ResponseEntity<ApiResponse<List<Student>>> searchStudents(
-            @RequestParam String name) {
+    public ResponseEntity<ApiResponse<CursorPage<Student>>> searchStudents(
+            @RequestParam String name,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + StudentService.DEFAULT_SEARCH_LIMIT) int limit) {
         logger.debug("Searching students with name containing: {}", name);
-        List<Student> students = studentService.searchByName(name);
-        return ResponseEntity.ok(ApiResponse.success("Search results", students));
+        CursorPage<Student> page = studentService.searchByName(name, after, limit);
+        return ResponseEntity.ok()
+                .eTag(weakEtagOf(page.getItems(), page.getNextCursor()))
+                .body(ApiResponse.success("Search results", page));
+    }
+
+    /**
+     * Ranked, typo-tolerant search over name, email and phone.
+     * Public endpoint - no authentication required.
+     * 
+     * Served entirely from the in-process search index; the database is not queried.
+     * 
+     * Example: GET /api/students/search/ranked?q=jon%20smth&limit=10
+     */
+    @GetMapping("/search/ranked")
+    public ResponseEntity<ApiResponse<List<StudentSearchHit>>> searchStudentsRanked(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limit) {
+        logger.debug("Ranked search for: {}", q);
+        List<StudentSearchHit> hits = studentSearchIndex.search(q, limit);
+        return ResponseEntity.ok(ApiResponse.success("Search results", hits));
+    }
+
+    /**
+     * Autocomplete students by name, name word or email prefix.
+     * Public endpoint - no authentication required.
+     * 
+     * Served from an in-memory prefix trie; the database is not queried.
+     * 
+     * Example: GET /api/students/suggest?prefix=jo&limit=10
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<ApiResponse<List<StudentSuggestion>>> suggestStudents(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<StudentSuggestion> suggestions = studentSuggester.suggest(prefix, limit);
+        return ResponseEntity.ok(ApiResponse.success("Suggestions", suggestions));
+    }
+
+    /**
+     * Export every student as NDJSON (default) or CSV.
+     * Public endpoint - no authentication required.
+     * 
+     * The body is streamed straight from a database cursor, so memory use is
+     * constant and the first bytes arrive before the export has finished.
+     * 
+     * Example: GET /api/students/export?format=csv
+     */
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportStudents(
+            @RequestParam(defaultValue = "ndjson") String format) {
+        StudentExportService.Format exportFormat = StudentExportService.Format.fromParam(format);
+        logger.info("Exporting students as {}", exportFormat);
+
+        StreamingResponseBody body = out -> studentExportService.export(exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"students." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    /**
+     * Students created, updated or deleted after a cursor, oldest first.
+     * Public endpoint - no authentication required.
+     * 
+     * Call without "since" to get the current cursor, load all students, then
+     * poll with the returned cursor. Deletes appear as tombstones (type DELETED,
+     * student id only). 410 Gone means the cursor is older than the kept
+     * history: reload and start from a new cursor.
+     * 
+     * Example: GET /api/students/changes
+     * Example: GET /api/students/changes?since=1520&limit=100
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ApiResponse<StudentChangeFeed>> getChanges(
+            @RequestParam(required = false) Long since,
+            @RequestParam(defaultValue = "" + StudentChangeLog.DEFAULT_LIMIT) int limit) {
+        logger.debug("Fetching student changes: since={}, limit={}", since, limit);
+        StudentChangeFeed feed = studentChangeLog.changesSince(since, limit);
+        return ResponseEntity.ok(ApiResponse.success("Student changes retrieved successfully", feed));
+    }
+
+    /**
+     * Stream student changes as Server-Sent Events.
+     * Public endpoint - no authentication required.
+     * 
+     * Each "change" event carries a change log entry (same JSON as /changes) with
+     * its seq as the event id. A browser EventSource reconnects by itself and sends
+     * Last-Event-ID, so it resumes where it stopped; "since" does the same for a
+     * first connection (e.g. with a cursor from /changes). A "reset" event means
+     * the missed changes are no longer held: reload, then keep listening.
+     * 
+     * Example: GET /api/students/stream   (Accept: text/event-stream)
+     * Example: GET /api/students/stream?since=1520
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamChanges(
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+            @RequestParam(required = false) Long since,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        Long resumeAfter = since;
+        if (lastEventId != null && !lastEventId.isBlank()) {
+            try {
+                resumeAfter = Long.valueOf(lastEventId.trim());
+            } catch (NumberFormatException e) {
+                throw new BadRequestException("Invalid Last-Event-ID: " + lastEventId);
+            }
+        }
+        logger.debug("Opening student change stream after seq {}", resumeAfter);
+        studentChangeStream.subscribe(resumeAfter, request, response);
     }
 
     /**
@@ -94,34 +303,129 @@ public class StudentController {
             @Valid @RequestBody Student student) {
         logger.info("Creating new student: {}", student.getName());
         
-        // Check if email already exists
-        if (studentService.existsByEmail(student.getEmail())) {
-            return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(ApiResponse.error("Email already exists: " + student.getEmail()));
+        // Single conditional insert; an existing email is reported instead of raised
+        return studentService.create(student)
+                .map(savedStudent -> ResponseEntity.status(HttpStatus.CREATED)
+                        .body(ApiResponse.success("Student created successfully", savedStudent)))
+                .orElse(ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(ApiResponse.error("Email already exists: " + student.getEmail())));
+    }
+
+    /**
+     * Start a bulk import of students.
+     * Requires authentication (any logged-in user).
+     * 
+     * The upload is stored and answered with 202 right away; the import runs in
+     * the background, so poll the returned job for progress. Each record is
+     * validated like POST /api/students; rejected records are listed in the
+     * job's error report and do not stop the import.
+     * 
+     * - CSV (text/csv): header row with name and email, phone optional, other
+     *   columns ignored - the output of /export?format=csv imports as is
+     * - JSON (application/json or application/x-ndjson): an array of student
+     *   objects, or one object per line like /export
+     * 
+     * Example: POST /api/students/import
+     * Headers: Authorization: Bearer <token>, Content-Type: text/csv
+     * Body: name,email,phone
+     *       John Doe,john@example.com,123456789
+     */
+    @PostMapping(value = "/import", consumes = { "text/csv", "application/json", "application/x-ndjson" })
+    public ResponseEntity<ApiResponse<ImportJobStatus>> importStudents(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            Authentication authentication) throws IOException {
+        StudentImportService.Format format = StudentImportService.Format.fromContentType(contentType);
+        ImportJobStatus job = studentImportService.submit(body, format, authentication.getName());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/students/import/" + job.getJobId()))
+                .body(ApiResponse.success("Import accepted", job));
+    }
+
+    /**
+     * Progress of an import job: rows read, imported and rejected, plus the first
+     * rejected rows. Only the user who started the job (or an admin) can see it.
+     * 
+     * Example: GET /api/students/import/4f1c...
+     */
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ApiResponse<ImportJobStatus>> getImportJob(@PathVariable String jobId,
+                                                                     Authentication authentication) {
+        return studentImportService.findJob(jobId)
+                .filter(job -> canSee(job, authentication))
+                .map(job -> ResponseEntity.ok(ApiResponse.success("Import " + job.getState(), job)))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Import job not found: " + jobId)));
+    }
+
+    /**
+     * Every rejected row of an import job as CSV (row,email,error).
+     * 404 without a body if the job does not exist or belongs to someone else.
+     * 
+     * Example: GET /api/students/import/4f1c.../errors
+     */
+    @GetMapping("/import/{jobId}/errors")
+    public ResponseEntity<StreamingResponseBody> getImportErrors(@PathVariable String jobId,
+                                                                 Authentication authentication) {
+        if (studentImportService.findJob(jobId).filter(job -> canSee(job, authentication)).isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
-        
-        Student savedStudent = studentService.save(student);
-        return ResponseEntity.status(HttpStatus.CREATED)
-                .body(ApiResponse.success("Student created successfully", savedStudent));
+        StreamingResponseBody body = out -> studentImportService.writeErrorReport(jobId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("text/csv"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"import-" + jobId + "-errors.csv\"")
+                .body(body);
     }
 
     /**
      * Update an existing student.
      * Requires authentication (any logged-in user).
      * 
+     * Replaces name, email and phone with one UPDATE, without reading the
+     * student first. With If-Match (the ETag of GET /api/students/{id}) the
+     * update only applies to that version; otherwise the last write wins.
+     * 
      * Example: PUT /api/students/1
-     * Headers: Authorization: Bearer <token>
+     * Headers: Authorization: Bearer <token>, optional If-Match: "1.3"
      * Body: { "name": "John Updated", "email": "john.updated@example.com", "phone": "987654321" }
      */
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<Student>> updateStudent(
             @PathVariable Long id,
-            @Valid @RequestBody Student studentDetails) {
+            @Valid @RequestBody Student studentDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         logger.info("Updating student with id: {}", id);
         
-        return studentService.update(id, studentDetails)
-                .map(student -> ResponseEntity.ok(
-                        ApiResponse.success("Student updated successfully", student)))
+        return studentService.update(id, studentDetails, expectedVersion(id, ifMatch))
+                .map(student -> updated(student))
+                .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(ApiResponse.error("Student not found with id: " + id)));
+    }
+
+    /**
+     * Partially update a student.
+     * Requires authentication (any logged-in user).
+     * 
+     * Only the fields in the body change; "phone": null clears the phone.
+     * Runs as one conditional UPDATE and never reads the student first.
+     * With If-Match a student at another version is left alone and the
+     * answer is 412 with the current ETag.
+     * 
+     * Example: PATCH /api/students/1
+     * Headers: Authorization: Bearer <token>, If-Match: "1.3"
+     * Body: { "phone": "555123" }
+     */
+    @PatchMapping(value = "/{id}",
+            consumes = {MediaType.APPLICATION_JSON_VALUE, "application/merge-patch+json"})
+    public ResponseEntity<ApiResponse<Student>> patchStudent(
+            @PathVariable Long id,
+            @Valid @RequestBody StudentPatch patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        logger.info("Patching student with id: {}", id);
+        
+        return studentService.patch(id, patch, expectedVersion(id, ifMatch))
+                .map(student -> updated(student))
                 .orElse(ResponseEntity.status(HttpStatus.NOT_FOUND)
                         .body(ApiResponse.error("Student not found with id: " + id)));
     }
@@ -130,6 +434,8 @@ public class StudentController {
      * Delete a student.
      * Requires ADMIN role.
      * 
+     * One DELETE statement; whether it removed a row decides 200 or 404.
+     * 
      * Example: DELETE /api/students/1
      * Headers: Authorization: Bearer <token>  (must be admin token)
      */
@@ -138,13 +444,104 @@ public class StudentController {
     public ResponseEntity<ApiResponse<Void>> deleteStudent(@PathVariable Long id) {
         logger.info("Deleting student with id: {}", id);
         
-        if (studentService.findById(id).isEmpty()) {
+        if (!studentService.deleteById(id)) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(ApiResponse.error("Student not found with id: " + id));
         }
-        
-        studentService.deleteById(id);
         return ResponseEntity.ok(ApiResponse.success("Student deleted successfully", null));
     }
-}
 
+    /**
+     * Get many students by ID in one request.
+     * Public endpoint - no authentication required.
+     * 
+     * Students not in the cache are loaded with a single IN (...) query. The
+     * result lists every requested id once, in request order, with status 200
+     * and the student, or 404.
+     * 
+     * Example: POST /api/students/batch-get
+     * Body: { "ids": [1, 2, 42] }
+     */
+    @PostMapping("/batch-get")
+    public ResponseEntity<ApiResponse<List<StudentBatchResult>>> getStudentsByIds(
+            @Valid @RequestBody StudentIdsRequest request) {
+        logger.debug("Fetching {} students by id", request.getIds().size());
+        
+        List<StudentBatchResult> results = studentService.findAllById(request.getIds());
+        long found = results.stream().filter(result -> result.status() == 200).count();
+        return ResponseEntity.ok(ApiResponse.success(
+                found + " of " + results.size() + " students found", results));
+    }
+
+    /**
+     * Delete many students by ID in one request.
+     * Requires ADMIN role.
+     * 
+     * A single DELETE ... WHERE id IN (...) statement. The result lists every
+     * requested id once, in request order, with status 200 (deleted) or 404.
+     * 
+     * Example: POST /api/students/batch-delete
+     * Headers: Authorization: Bearer <token>  (must be admin token)
+     * Body: { "ids": [1, 2, 42] }
+     */
+    @PostMapping("/batch-delete")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<List<StudentBatchResult>>> deleteStudentsByIds(
+            @Valid @RequestBody StudentIdsRequest request) {
+        logger.info("Deleting {} students by id", request.getIds().size());
+        
+        List<StudentBatchResult> results = studentService.deleteAllById(request.getIds());
+        long deleted = results.stream().filter(result -> result.status() == 200).count();
+        return ResponseEntity.ok(ApiResponse.success(
+                deleted + " of " + results.size() + " students deleted", results));
+    }
+
+    private static boolean canSee(ImportJobStatus job, Authentication authentication) {
+        return job.getOwner().equals(authentication.getName())
+                || authentication.getAuthorities().stream()
+                        .anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    private static ResponseEntity<ApiResponse<Student>> updated(Student student) {
+        return ResponseEntity.ok()
+                .eTag(StudentVersion.of(student).etag())
+                .lastModified(student.getUpdatedAt())
+                .body(ApiResponse.success("Student updated successfully", student));
+    }
+
+    /**
+     * Version named by an If-Match header, or null if the header is absent or "*".
+     * A tag that cannot belong to this student (weak, other id, malformed) can
+     * never match, so it fails the precondition.
+     */
+    private static Long expectedVersion(Long id, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        String prefix = "\"" + id + ".";
+        if (tag.startsWith(prefix) && tag.endsWith("\"") && tag.length() > prefix.length() + 1) {
+            try {
+                return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+            } catch (NumberFormatException e) {
+                // falls through to the conflict below
+            }
+        }
+        throw new VersionConflictException("If-Match " + tag + " is not a version of student " + id, null);
+    }
+
+    /**
+     * Weak ETag for a list of records: a digest of every id and version (plus the
+     * next-page cursor), so any change to a listed student changes the tag.
+     */
+    private static String weakEtagOf(List<Student> students, String nextCursor) {
+        StringBuilder fingerprint = new StringBuilder(students.size() * 12);
+        for (Student student : students) {
+            fingerprint.append(student.getId()).append('.').append(student.getVersion()).append(';');
+        }
+        fingerprint.append(nextCursor);
+        String digest = DigestUtils.md5DigestAsHex(
+                fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+        return "W/\"" + digest + "\"";
+    }
+}
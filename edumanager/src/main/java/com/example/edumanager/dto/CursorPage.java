@@ -0,0 +1,65 @@
+package com.example.edumanager.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated listing.
+ * Pass nextCursor back as the "after" parameter to fetch the following page;
+ * it is null once the last page has been reached.
+ */
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+    private int limit;
+    private String sort;
+
+    // Default constructor
+    public CursorPage() {
+    }
+
+    // Constructor with fields
+    public CursorPage(List<T> items, String nextCursor, int limit, String sort) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+        this.limit = limit;
+        this.sort = sort;
+    }
+
+    // Getters and Setters
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasMore() {
+        return nextCursor != null;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    public String getSort() {
+        return sort;
+    }
+
+    public void setSort(String sort) {
+        this.sort = sort;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.edumanager.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Progress and outcome of a bulk student import.
+ *
+ * Only the first few row errors are included; the complete list is
+ * available as CSV from /api/students/import/{jobId}/errors.
+ */
+public class ImportJobStatus {
+
+    /**
+     * Lifecycle of an import job.
+     */
+    public enum State {
+        QUEUED,
+        RUNNING,
+        /** Every record was read; some may have been rejected (see rowsFailed). */
+        COMPLETED,
+        /** The upload could not be read to the end; rows before the failure stay imported. */
+        FAILED
+    }
+
+    private String jobId;
+    private State state;
+    private String format;
+    private String owner;
+    private long rowsRead;
+    private long rowsImported;
+    private long rowsFailed;
+    private int percentComplete;
+    private Instant submittedAt;
+    private Instant finishedAt;
+    private String message;
+    private List<ImportRowError> errors;
+
+    // Default constructor
+    public ImportJobStatus() {
+    }
+
+    // Constructor with fields
+    public ImportJobStatus(String jobId, State state, String format, String owner,
+                           long rowsRead, long rowsImported, long rowsFailed, int percentComplete,
+                           Instant submittedAt, Instant finishedAt, String message,
+                           List<ImportRowError> errors) {
+        this.jobId = jobId;
+        this.state = state;
+        this.format = format;
+        this.owner = owner;
+        this.rowsRead = rowsRead;
+        this.rowsImported = rowsImported;
+        this.rowsFailed = rowsFailed;
+        this.percentComplete = percentComplete;
+        this.submittedAt = submittedAt;
+        this.finishedAt = finishedAt;
+        this.message = message;
+        this.errors = errors;
+    }
+
+    // Getters and Setters
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public String getFormat() {
+        return format;
+    }
+
+    public void setFormat(String format) {
+        this.format = format;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public long getRowsRead() {
+        return rowsRead;
+    }
+
+    public void setRowsRead(long rowsRead) {
+        this.rowsRead = rowsRead;
+    }
+
+    public long getRowsImported() {
+        return rowsImported;
+    }
+
+    public void setRowsImported(long rowsImported) {
+        this.rowsImported = rowsImported;
+    }
+
+    public long getRowsFailed() {
+        return rowsFailed;
+    }
+
+    public void setRowsFailed(long rowsFailed) {
+        this.rowsFailed = rowsFailed;
+    }
+
+    public int getPercentComplete() {
+        return percentComplete;
+    }
+
+    public void setPercentComplete(int percentComplete) {
+        this.percentComplete = percentComplete;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public List<ImportRowError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<ImportRowError> errors) {
+        this.errors = errors;
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.edumanager.dto;
+
+/**
+ * A record of a bulk import that was not imported.
+ *
+ * @param row   position of the record in the upload (1 = first data row / array element)
+ * @param email email given in the record, if any
+ * @param error why the record was rejected
+ */
+public record ImportRowError(long row, String email, String error) {
+}
@@ -5,11 +5,15 @@ import java.util.Set;
 /**
  * DTO for login response.
  * Contains JWT token and user information.
+ * Also returned by token refresh: a short-lived access token (expiresIn
+ * seconds) and the refresh token that replaces the one just used.
  */
 public class LoginResponse {
 
     private String token;
     private String type = "Bearer";
+    private long expiresIn;
+    private String refreshToken;
     private String username;
     private Set<String> roles;
 
@@ -18,8 +22,11 @@ public class LoginResponse {
     }
 
     // Constructor with fields
-    public LoginResponse(String token, String username, Set<String> roles) {
+    public LoginResponse(String token, long expiresIn, String refreshToken,
+                         String username, Set<String> roles) {
         this.token = token;
+        this.expiresIn = expiresIn;
+        this.refreshToken = refreshToken;
         this.username = username;
         this.roles = roles;
     }
@@ -41,6 +48,22 @@ public class LoginResponse {
         this.type = type;
     }
 
+    public long getExpiresIn() {
+        return expiresIn;
+    }
+
+    public void setExpiresIn(long expiresIn) {
+        this.expiresIn = expiresIn;
+    }
+
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public String getUsername() {
         return username;
     }
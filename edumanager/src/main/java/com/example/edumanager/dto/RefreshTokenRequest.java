@@ -0,0 +1,30 @@
+package com.example.edumanager.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+/**
+ * DTO for token refresh and logout requests.
+ */
+public class RefreshTokenRequest {
+
+    @NotBlank(message = "Refresh token is required")
+    private String refreshToken;
+
+    // Default constructor
+    public RefreshTokenRequest() {
+    }
+
+    // Constructor with fields
+    public RefreshTokenRequest(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
+    // Getters and Setters
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.edumanager.dto;
+
+import com.example.edumanager.entity.Student;
+
+/**
+ * Outcome for one id of a batch request, in the order the ids were given.
+ *
+ * @param id      the requested id
+ * @param status  what the single-id endpoint would have answered: 200 (found / deleted) or 404
+ * @param student the student for batch-get hits; null otherwise
+ */
+public record StudentBatchResult(Long id, int status, Student student) {
+
+    public static StudentBatchResult found(Student student) {
+        return new StudentBatchResult(student.getId(), 200, student);
+    }
+
+    public static StudentBatchResult deleted(Long id) {
+        return new StudentBatchResult(id, 200, null);
+    }
+
+    public static StudentBatchResult notFound(Long id) {
+        return new StudentBatchResult(id, 404, null);
+    }
+}
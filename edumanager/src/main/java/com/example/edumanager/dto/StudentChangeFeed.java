@@ -0,0 +1,15 @@
+package com.example.edumanager.dto;
+
+import com.example.edumanager.entity.StudentChange;
+
+import java.util.List;
+
+/**
+ * One page of the student change log (GET /api/students/changes).
+ *
+ * @param changes entries after the requested cursor, in seq order
+ * @param cursor  pass back as "since" to continue; unchanged when there was nothing new
+ * @param hasMore whether more entries are already waiting after this page
+ */
+public record StudentChangeFeed(List<StudentChange> changes, long cursor, boolean hasMore) {
+}
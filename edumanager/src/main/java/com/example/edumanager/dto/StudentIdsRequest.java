@@ -0,0 +1,39 @@
+package com.example.edumanager.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO for the batch endpoints (POST /api/students/batch-get and /batch-delete).
+ * Repeated ids are answered once.
+ */
+public class StudentIdsRequest {
+
+    /** Most ids accepted in one request. */
+    public static final int MAX_IDS = 500;
+
+    @NotEmpty(message = "At least one id is required")
+    @Size(max = MAX_IDS, message = "At most " + MAX_IDS + " ids per request")
+    private List<@NotNull(message = "Ids cannot be null") Long> ids;
+
+    // Default constructor
+    public StudentIdsRequest() {
+    }
+
+    // Constructor with fields
+    public StudentIdsRequest(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    // Getters and Setters
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.edumanager.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * DTO for a partial student update (PATCH /api/students/{id}).
+ *
+ * Only the fields present in the request are changed. Name and email cannot
+ * be removed, so null there means "leave as is"; an explicit "phone": null
+ * clears the phone number.
+ */
+public class StudentPatch {
+
+    @Size(min = 2, max = 100, message = "Name must be between 2 and 100 characters")
+    @Pattern(regexp = ".*\\S.*", message = "Name cannot be blank")
+    private String name;
+
+    @Email(message = "Please provide a valid email address")
+    @Pattern(regexp = ".*\\S.*", message = "Email cannot be blank")
+    private String email;
+
+    @Size(max = 20, message = "Phone number cannot exceed 20 characters")
+    private String phone;
+
+    // Set once the request mentions phone at all, so null can mean "clear"
+    @JsonIgnore
+    private boolean phoneSet;
+
+    // Default constructor
+    public StudentPatch() {
+    }
+
+    // Constructor with fields (all three are applied, as for a full replacement)
+    public StudentPatch(String name, String email, String phone) {
+        this.name = name;
+        this.email = email;
+        setPhone(phone);
+    }
+
+    /**
+     * True if the patch would not change anything.
+     */
+    @JsonIgnore
+    public boolean isEmpty() {
+        return name == null && email == null && !phoneSet;
+    }
+
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+        this.phoneSet = true;
+    }
+
+    public boolean isPhoneSet() {
+        return phoneSet;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.edumanager.dto;
+
+/**
+ * A single ranked full-text search result.
+ * Fields are served from the search index, not the database.
+ */
+public class StudentSearchHit {
+
+    private Long id;
+    private String name;
+    private String email;
+    private String phone;
+    private float score;
+
+    // Default constructor
+    public StudentSearchHit() {
+    }
+
+    // Constructor with fields
+    public StudentSearchHit(Long id, String name, String email, String phone, float score) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.phone = phone;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    public float getScore() {
+        return score;
+    }
+
+    public void setScore(float score) {
+        this.score = score;
+    }
+}
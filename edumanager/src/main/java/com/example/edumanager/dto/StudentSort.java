@@ -0,0 +1,29 @@
+package com.example.edumanager.dto;
+
+import com.example.edumanager.exception.BadRequestException;
+
+import java.util.Locale;
+
+/**
+ * Stable sort orders supported by the paginated student listing.
+ * Every order is tie-broken by id so keyset cursors never skip or repeat rows.
+ */
+public enum StudentSort {
+    ID,
+    NAME,
+    EMAIL;
+
+    /**
+     * Parse a request parameter such as "name" or "EMAIL".
+     *
+     * @throws BadRequestException if the value is not a supported sort field
+     */
+    public static StudentSort fromParam(String value) {
+        try {
+            return StudentSort.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException(
+                    "Unsupported sort field: " + value + " (expected id, name or email)");
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.edumanager.dto;
+
+import com.example.edumanager.entity.Student;
+
+import java.time.Instant;
+
+/**
+ * Just the validator fields of a student (id, version, last modification),
+ * enough to answer a conditional GET without loading the full record.
+ */
+public record StudentVersion(Long id, Long version, Instant updatedAt) {
+
+    public static StudentVersion of(Student student) {
+        return new StudentVersion(student.getId(), student.getVersion(), student.getUpdatedAt());
+    }
+
+    /**
+     * Strong ETag for the record: changes whenever the version does.
+     */
+    public String etag() {
+        return "\"" + id + "." + version + "\"";
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.edumanager.dto;
+
+/**
+ * The parts of a user that decide whether an issued token is still valid.
+ */
+public record UserTokenState(int tokenVersion, boolean enabled) {
+}
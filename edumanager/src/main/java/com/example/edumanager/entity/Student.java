@@ -1,25 +1,54 @@
 package com.example.edumanager.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 /**
  * Student entity representing a student in the education management system.
  * Maps to the 'students' table in the database.
+ * Cached in Hibernate's second-level cache (read-write, so updates
+ * through the session keep it consistent).
  */
 @Entity
-@Table(name = "students")
+@Table(name = "students", indexes = {
+        // Backs the (name, id) keyset used by name-sorted pagination
+        @Index(name = "idx_students_name_id", columnList = "name, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Student.CACHE_REGION)
 public class Student {
 
+    /** Second-level cache region for students (sized in hibernate-cache.regions). */
+    public static final String CACHE_REGION = "student";
+
+    /** Ids reserved per sequence call (and the sequence's increment). */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Ids come from students_seq through Hibernate's pooled optimizer: one sequence
+    // call reserves ID_ALLOCATION_SIZE ids, and since the id is known before the
+    // INSERT, inserts can be sent as JDBC batches (IDENTITY rules that out).
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "student_seq")
+    @SequenceGenerator(name = "student_seq", sequenceName = "students_seq",
+            allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     @NotBlank(message = "Name is required")
@@ -35,6 +64,21 @@ public class Student {
     @Size(max = 20, message = "Phone number cannot exceed 20 characters")
     private String phone;
 
+    // Optimistic-locking version, incremented on every update; backs the record's ETag.
+    // The column default lets schema update add it to tables that already hold rows.
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Long version;
+
+    // Time of the last insert/update; backs the record's Last-Modified header
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @Column(name = "updated_at", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant updatedAt;
+
     // Default constructor (required by JPA)
     public Student() {
     }
@@ -79,6 +123,22 @@ public class Student {
         this.phone = phone;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
     @Override
     public String toString() {
         return "Student{" +
@@ -86,6 +146,7 @@ public class Student {
                 ", name='" + name + '\'' +
                 ", email='" + email + '\'' +
                 ", phone='" + phone + '\'' +
+                ", version=" + version +
                 '}';
     }
 }
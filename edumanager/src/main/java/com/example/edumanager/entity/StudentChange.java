@@ -0,0 +1,151 @@
+package com.example.edumanager.entity;
+
+import com.example.edumanager.event.StudentChangedEvent;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * One entry of the student change log (GET /api/students/changes).
+ *
+ * Written in the same transaction as the change itself. seq is assigned
+ * at commit under a lock on StudentChangeLogHead, so entries become
+ * visible in seq order and a reader that has seen seq N never misses a
+ * later commit with a smaller seq.
+ *
+ * Created and updated entries carry the student as written; deletes are
+ * tombstones with only the student id. Compaction removes entries that a
+ * later entry for the same student supersedes, so a created entry may be
+ * replaced by an updated one: consumers should treat both as upserts.
+ */
+@Entity
+@Table(name = "student_changes", indexes = {
+        // Finds the later entry for the same student during compaction
+        @Index(name = "idx_student_changes_student_seq", columnList = "student_id, seq")
+})
+public class StudentChange {
+
+    @Id
+    private Long seq;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 10)
+    private StudentChangedEvent.Type type;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    private String name;
+
+    private String email;
+
+    @Column(length = 20)
+    private String phone;
+
+    private Long version;
+
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    // Default constructor
+    public StudentChange() {
+    }
+
+    // Constructor with fields
+    public StudentChange(Long seq, StudentChangedEvent event, Instant changedAt) {
+        this.seq = seq;
+        this.type = event.type();
+        this.studentId = event.studentId();
+        this.changedAt = changedAt;
+        Student student = event.student();
+        if (student != null) {
+            this.name = student.getName();
+            this.email = student.getEmail();
+            this.phone = student.getPhone();
+            this.version = student.getVersion();
+            this.updatedAt = student.getUpdatedAt();
+        }
+    }
+
+    // Getters and Setters
+    public Long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(Long seq) {
+        this.seq = seq;
+    }
+
+    public StudentChangedEvent.Type getType() {
+        return type;
+    }
+
+    public void setType(StudentChangedEvent.Type type) {
+        this.type = type;
+    }
+
+    public Long getStudentId() {
+        return studentId;
+    }
+
+    public void setStudentId(Long studentId) {
+        this.studentId = studentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public String getPhone() {
+        return phone;
+    }
+
+    public void setPhone(String phone) {
+        this.phone = phone;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public Instant getChangedAt() {
+        return changedAt;
+    }
+
+    public void setChangedAt(Instant changedAt) {
+        this.changedAt = changedAt;
+    }
+}
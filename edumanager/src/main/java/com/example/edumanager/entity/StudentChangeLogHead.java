@@ -0,0 +1,80 @@
+package com.example.edumanager.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * The single row (id 1) holding the position of the student change log.
+ *
+ * Writers lock it just before commit to take the next seq values, which
+ * makes seq order equal commit order. purgedThrough is the highest seq
+ * whose tombstone compaction has dropped; cursors below it can no longer
+ * be served completely. compactedThrough is the highest seq whose entries
+ * have had their superseded predecessors dropped; compaction resumes after it.
+ */
+@Entity
+@Table(name = "student_change_log_head")
+public class StudentChangeLogHead {
+
+    /** Id of the one row. */
+    public static final int ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+
+    @Column(name = "purged_through", nullable = false)
+    private long purgedThrough;
+
+    // The column default lets schema update add it to the existing head row
+    @ColumnDefault("0")
+    @Column(name = "compacted_through", nullable = false)
+    private long compactedThrough;
+
+    // Default constructor
+    public StudentChangeLogHead() {
+    }
+
+    // Constructor with fields
+    public StudentChangeLogHead(Integer id) {
+        this.id = id;
+    }
+
+    // Getters and Setters
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public long getLastSeq() {
+        return lastSeq;
+    }
+
+    public void setLastSeq(long lastSeq) {
+        this.lastSeq = lastSeq;
+    }
+
+    public long getPurgedThrough() {
+        return purgedThrough;
+    }
+
+    public void setPurgedThrough(long purgedThrough) {
+        this.purgedThrough = purgedThrough;
+    }
+
+    public long getCompactedThrough() {
+        return compactedThrough;
+    }
+
+    public void setCompactedThrough(long compactedThrough) {
+        this.compactedThrough = compactedThrough;
+    }
+}
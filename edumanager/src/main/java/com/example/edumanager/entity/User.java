@@ -1,27 +1,50 @@
 package com.example.edumanager.entity;
 
 import java.util.HashSet;
+import java.util.Objects;
 import java.util.Set;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.CollectionTable;
 import jakarta.persistence.Column;
 import jakarta.persistence.ElementCollection;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import com.example.edumanager.event.UserChangeListener;
 
 /**
  * User entity for authentication and authorization.
  * Stores user credentials and roles.
+ * 
+ * tokenVersion is embedded in every JWT issued to the user. Changing roles or
+ * the enabled flag bumps it, which revokes all tokens issued before the change.
+ * Replace roles through setRoles() (not by mutating getRoles()) so the bump happens.
+ * 
+ * Users and their roles live in Hibernate's second-level cache, so loading
+ * a user by id or through the cached findByUsername query needs no SQL.
  */
 @Entity
 @Table(name = "users")
+@EntityListeners(UserChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.CACHE_REGION)
 public class User {
 
+    /** Second-level cache region for users (sized in hibernate-cache.regions). */
+    public static final String CACHE_REGION = "user";
+
+    /** Second-level cache region for the roles collection. */
+    public static final String ROLES_CACHE_REGION = "userRoles";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -33,6 +56,7 @@ public class User {
     private String password;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = User.ROLES_CACHE_REGION)
     @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "role")
     private Set<String> roles = new HashSet<>();
@@ -40,6 +64,10 @@ public class User {
     @Column(nullable = false)
     private boolean enabled = true;
 
+    @ColumnDefault("0")
+    @Column(name = "token_version", nullable = false)
+    private int tokenVersion;
+
     // Default constructor
     public User() {
     }
@@ -81,6 +109,9 @@ public class User {
     }
 
     public void setRoles(Set<String> roles) {
+        if (!Objects.equals(roles, this.roles)) {
+            revokeTokens();
+        }
         this.roles = roles;
     }
 
@@ -89,9 +120,23 @@ public class User {
     }
 
     public void setEnabled(boolean enabled) {
+        if (enabled != this.enabled) {
+            revokeTokens();
+        }
         this.enabled = enabled;
     }
 
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+
+    /**
+     * Invalidate every token issued to this user so far.
+     */
+    public void revokeTokens() {
+        this.tokenVersion++;
+    }
+
     @Override
     public String toString() {
         return "User{" +
@@ -99,6 +144,7 @@ public class User {
                 ", username='" + username + '\'' +
                 ", roles=" + roles +
                 ", enabled=" + enabled +
+                ", tokenVersion=" + tokenVersion +
                 '}';
     }
 }
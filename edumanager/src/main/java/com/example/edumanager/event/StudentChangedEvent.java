@@ -0,0 +1,46 @@
+package com.example.edumanager.event;
+
+import com.example.edumanager.entity.Student;
+
+/**
+ * Published by StudentService whenever a student is created, updated or deleted.
+ * 
+ * Listeners that keep derived state (search index, caches, ...) should use
+ * {@code @TransactionalEventListener} so they only see committed changes.
+ * StudentChangeLog records every event in the publishing transaction itself
+ * (BEFORE_COMMIT), so a write that publishes no event is missing from the
+ * change feed.
+ * 
+ * @param type      kind of change
+ * @param studentId id of the affected student
+ * @param student   detached copy of the student after the change, or null for deletes
+ */
+public record StudentChangedEvent(Type type, Long studentId, Student student) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static StudentChangedEvent created(Student student) {
+        return new StudentChangedEvent(Type.CREATED, student.getId(), copyOf(student));
+    }
+
+    public static StudentChangedEvent updated(Student student) {
+        return new StudentChangedEvent(Type.UPDATED, student.getId(), copyOf(student));
+    }
+
+    public static StudentChangedEvent deleted(Long studentId) {
+        return new StudentChangedEvent(Type.DELETED, studentId, null);
+    }
+
+    // Snapshot the managed entity so later changes to it don't leak into the event
+    private static Student copyOf(Student student) {
+        Student copy = new Student(student.getName(), student.getEmail(), student.getPhone());
+        copy.setId(student.getId());
+        copy.setVersion(student.getVersion());
+        copy.setUpdatedAt(student.getUpdatedAt());
+        return copy;
+    }
+}
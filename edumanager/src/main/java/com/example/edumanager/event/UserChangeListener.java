@@ -0,0 +1,31 @@
+package com.example.edumanager.event;
+
+import com.example.edumanager.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA entity listener that turns every User write into a {@link UserChangedEvent},
+ * whichever code path performed it.
+ * 
+ * Instantiated by Hibernate through Spring's bean container, so the
+ * publisher is injected. Bulk JPQL updates bypass entity listeners and
+ * must publish the event themselves.
+ */
+public class UserChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUsername()));
+    }
+}
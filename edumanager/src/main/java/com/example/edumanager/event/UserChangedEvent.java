@@ -0,0 +1,13 @@
+package com.example.edumanager.event;
+
+/**
+ * Published whenever a User row is inserted, updated or deleted
+ * (password, roles, enabled flag, token version...).
+ * 
+ * Listeners caching anything derived from users (token state, UserDetails)
+ * should evict on this event with {@code @TransactionalEventListener}.
+ * 
+ * @param username the affected user's username
+ */
+public record UserChangedEvent(String username) {
+}
@@ -0,0 +1,16 @@
+package com.example.edumanager.exception;
+
+/**
+ * Thrown for a request the client got wrong (a malformed cursor, an unknown
+ * sort field, an empty patch or import, ...). Mapped to 400 Bad Request with
+ * the message as the error text, so the message must be meant for clients.
+ *
+ * Other IllegalArgumentExceptions (from libraries or internal checks) are not
+ * mapped and stay 500s.
+ */
+public class BadRequestException extends IllegalArgumentException {
+
+    public BadRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.edumanager.exception;
+
+/**
+ * Thrown when a change log cursor is older than the history still kept
+ * (compaction has dropped tombstones after it). Mapped to 410 Gone: the
+ * client must reload all students and start over from a fresh cursor.
+ */
+public class ChangeCursorExpiredException extends RuntimeException {
+
+    public ChangeCursorExpiredException(String message) {
+        super(message);
+    }
+}
@@ -3,11 +3,14 @@ package com.example.edumanager.exception;
 import com.example.edumanager.dto.ApiResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.validation.FieldError;
+import org.springframework.web.HttpMediaTypeNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -72,6 +75,92 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error("Invalid username or password"));
     }
 
+    /**
+     * Handle invalid request arguments (e.g., a malformed pagination cursor).
+     * Only BadRequestException: other IllegalArgumentExceptions come from
+     * libraries or internal checks and stay 500s without echoing their message.
+     */
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ApiResponse<Void>> handleBadRequestException(
+            BadRequestException ex) {
+        
+        logger.warn("Bad request: {}", ex.getMessage());
+        
+        return ResponseEntity.badRequest()
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handle a conditional write against a stale version (If-Match mismatch).
+     */
+    @ExceptionHandler(VersionConflictException.class)
+    public ResponseEntity<ApiResponse<Void>> handleVersionConflictException(
+            VersionConflictException ex) {
+        
+        logger.warn("Precondition failed: {}", ex.getMessage());
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(HttpStatus.PRECONDITION_FAILED);
+        if (ex.getCurrent() != null) {
+            response.eTag(ex.getCurrent().etag());
+        }
+        return response.body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handle a change log cursor whose history has been compacted away.
+     */
+    @ExceptionHandler(ChangeCursorExpiredException.class)
+    public ResponseEntity<ApiResponse<Void>> handleChangeCursorExpiredException(
+            ChangeCursorExpiredException ex) {
+        
+        logger.warn("Change cursor expired: {}", ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.GONE)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handle a write rejected by a database constraint (e.g. a duplicate email
+     * on update, or a create that lost a race the database could not settle
+     * in one statement).
+     */
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<ApiResponse<Void>> handleDataIntegrityViolationException(
+            DataIntegrityViolationException ex) {
+        
+        logger.warn("Constraint violation: {}", ex.getMostSpecificCause().getMessage());
+        
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(ApiResponse.error("The request conflicts with existing data (e.g. a duplicate email)"));
+    }
+
+    /**
+     * Handle a request body in a format the endpoint does not accept.
+     */
+    @ExceptionHandler(HttpMediaTypeNotSupportedException.class)
+    public ResponseEntity<ApiResponse<Void>> handleMediaTypeNotSupportedException(
+            HttpMediaTypeNotSupportedException ex) {
+        
+        logger.warn("Unsupported media type: {}", ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.UNSUPPORTED_MEDIA_TYPE)
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
+    /**
+     * Handle overload of a bounded resource (e.g. login hashing queue full).
+     */
+    @ExceptionHandler(ServiceBusyException.class)
+    public ResponseEntity<ApiResponse<Void>> handleServiceBusyException(
+            ServiceBusyException ex) {
+        
+        logger.warn("Service busy: {}", ex.getMessage());
+        
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(ApiResponse.error(ex.getMessage()));
+    }
+
     /**
      * Handle all other exceptions.
      */
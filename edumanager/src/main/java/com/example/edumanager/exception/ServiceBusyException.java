@@ -0,0 +1,19 @@
+package com.example.edumanager.exception;
+
+/**
+ * Thrown when a bounded resource (e.g. the password hashing queue) is full.
+ * Mapped to 503 Service Unavailable with a Retry-After header.
+ */
+public class ServiceBusyException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
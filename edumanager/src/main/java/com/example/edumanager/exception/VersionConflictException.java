@@ -0,0 +1,22 @@
+package com.example.edumanager.exception;
+
+import com.example.edumanager.dto.StudentVersion;
+
+/**
+ * Thrown when a conditional write names a version the record no longer has
+ * (If-Match did not match). Mapped to 412 Precondition Failed, with the
+ * current ETag so the client can re-read and retry.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    private final StudentVersion current;
+
+    public VersionConflictException(String message, StudentVersion current) {
+        super(message);
+        this.current = current;
+    }
+
+    public StudentVersion getCurrent() {
+        return current;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.edumanager.reactive;
+
+import com.example.edumanager.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive read API ("reactive" profile).
+ * 
+ * Serves the public student reads (list, get by id, search) from a WebFlux
+ * router on its own Netty port (reactive.server.port), backed by an R2DBC
+ * pool (reactive.r2dbc.*, see ReactiveStudentRepository). The servlet
+ * application on server.port, including every write, is unchanged; both
+ * read the same tables.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveApiConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> reactiveStudentRoutes(ReactiveStudentHandler handler) {
+        return RouterFunctions.route()
+                .GET("/api/students/search", handler::search)
+                .GET("/api/students/{id}", handler::get)
+                .GET("/api/students", handler::list)
+                // Deferred so that parameter parsing errors thrown by handlers are caught too
+                .filter((request, next) -> Mono.defer(() -> next.handle(request))
+                        .onErrorResume(IllegalArgumentException.class, e -> ServerResponse
+                                .status(HttpStatus.BAD_REQUEST)
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .bodyValue(ApiResponse.error("Invalid request: " + e.getMessage()))))
+                .build();
+    }
+
+    /**
+     * Codecs use the application's ObjectMapper, so Student serializes
+     * exactly as it does on the servlet side.
+     */
+    @Bean
+    public HandlerStrategies reactiveHandlerStrategies(ObjectMapper objectMapper) {
+        return HandlerStrategies.builder()
+                .codecs(codecs -> {
+                    codecs.defaultCodecs().jackson2JsonEncoder(new Jackson2JsonEncoder(objectMapper));
+                    codecs.defaultCodecs().jackson2JsonDecoder(new Jackson2JsonDecoder(objectMapper));
+                })
+                .build();
+    }
+}
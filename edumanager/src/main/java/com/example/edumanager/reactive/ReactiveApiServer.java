@@ -0,0 +1,68 @@
+package com.example.edumanager.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.HandlerStrategies;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+
+/**
+ * Runs the reactive read API on its own Reactor Netty server.
+ * 
+ * The main application stays a servlet application on Tomcat; this server
+ * is started and stopped with the application context.
+ */
+@Component
+@Profile("reactive")
+public class ReactiveApiServer implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveApiServer.class);
+
+    private final RouterFunction<ServerResponse> routes;
+    private final HandlerStrategies strategies;
+    private final int port;
+    private volatile DisposableServer server;
+
+    public ReactiveApiServer(RouterFunction<ServerResponse> reactiveStudentRoutes,
+                             HandlerStrategies reactiveHandlerStrategies,
+                             @Value("${reactive.server.port:8081}") int port) {
+        this.routes = reactiveStudentRoutes;
+        this.strategies = reactiveHandlerStrategies;
+        this.port = port;
+    }
+
+    @Override
+    public void start() {
+        ReactorHttpHandlerAdapter adapter = new ReactorHttpHandlerAdapter(
+                RouterFunctions.toHttpHandler(routes, strategies));
+        server = HttpServer.create()
+                .port(port)
+                .handle(adapter)
+                .bindNow();
+        logger.info("Reactive read API listening on port {}", server.port());
+    }
+
+    @Override
+    public void stop() {
+        DisposableServer current = server;
+        if (current != null) {
+            current.disposeNow(Duration.ofSeconds(10));
+            server = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+}
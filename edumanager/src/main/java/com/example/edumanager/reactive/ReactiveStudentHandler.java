@@ -0,0 +1,100 @@
+package com.example.edumanager.reactive;
+
+import com.example.edumanager.dto.ApiResponse;
+import com.example.edumanager.entity.Student;
+import com.example.edumanager.service.StudentService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Handlers for the reactive read API (see ReactiveApiConfig for the routes).
+ * 
+ * Lists are written as they are read: a JSON array by default, or one
+ * object per line for Accept: application/x-ndjson. Rows are only fetched
+ * as fast as the client consumes them (backpressure from the socket
+ * through Reactor to the R2DBC driver).
+ */
+@Component
+@Profile("reactive")
+public class ReactiveStudentHandler {
+
+    /** Upper bound for one streamed listing; continue with ?after=<last id>. */
+    public static final int MAX_STREAM_SIZE = 10_000;
+
+    private final ReactiveStudentRepository studentRepository;
+
+    public ReactiveStudentHandler(ReactiveStudentRepository studentRepository) {
+        this.studentRepository = studentRepository;
+    }
+
+    /**
+     * GET /api/students?after=&limit= - students in id order.
+     */
+    public Mono<ServerResponse> list(ServerRequest request) {
+        long after = longParam(request, "after", 0);
+        int limit = clamp(intParam(request, "limit", StudentService.DEFAULT_PAGE_SIZE), MAX_STREAM_SIZE);
+        return stream(request, studentRepository.findAllAfter(after, limit));
+    }
+
+    /**
+     * GET /api/students/{id} - a single student, or 404.
+     */
+    public Mono<ServerResponse> get(ServerRequest request) {
+        long id = Long.parseLong(request.pathVariable("id"));
+        return studentRepository.findById(id)
+                .flatMap(student -> ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(ApiResponse.success(student)))
+                .switchIfEmpty(ServerResponse.status(404)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(ApiResponse.error("Student not found with id: " + id)));
+    }
+
+    /**
+     * GET /api/students/search?name=&afterName=&afterId=&limit= - same matching
+     * rules, order and page size as the servlet endpoint. Continue with the name
+     * and id of the last student received.
+     */
+    public Mono<ServerResponse> search(ServerRequest request) {
+        String term = request.queryParam("name").orElse("").trim().toLowerCase(Locale.ROOT);
+        String afterName = request.queryParam("afterName").orElse(null);
+        long afterId = longParam(request, "afterId", 0);
+        int limit = clamp(intParam(request, "limit", StudentService.DEFAULT_SEARCH_LIMIT),
+                StudentService.MAX_SEARCH_LIMIT);
+        if (term.isEmpty()) {
+            return stream(request, Flux.empty());
+        }
+        return stream(request, studentRepository.searchByName(
+                StudentService.nameLikePattern(term), afterName, afterId, limit));
+    }
+
+    private static Mono<ServerResponse> stream(ServerRequest request, Flux<Student> students) {
+        List<MediaType> accept = request.headers().accept();
+        MediaType contentType = accept.stream().anyMatch(MediaType.APPLICATION_NDJSON::equalsTypeAndSubtype)
+                ? MediaType.APPLICATION_NDJSON
+                : MediaType.APPLICATION_JSON;
+        return ServerResponse.ok()
+                .contentType(contentType)
+                .body(students, Student.class);
+    }
+
+    private static int clamp(int value, int max) {
+        return Math.max(1, Math.min(value, max));
+    }
+
+    private static int intParam(ServerRequest request, String name, int defaultValue) {
+        return request.queryParam(name).map(Integer::parseInt).orElse(defaultValue);
+    }
+
+    private static long longParam(ServerRequest request, String name, long defaultValue) {
+        return request.queryParam(name).map(Long::parseLong).orElse(defaultValue);
+    }
+}
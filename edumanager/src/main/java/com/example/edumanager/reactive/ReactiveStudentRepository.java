@@ -0,0 +1,142 @@
+package com.example.edumanager.reactive;
+
+import com.example.edumanager.entity.Student;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Non-blocking reads of the students table over R2DBC.
+ * 
+ * Rows are mapped into the same Student class the JPA side uses (as detached
+ * objects; nothing here is managed by Hibernate). The SQL matches the
+ * servlet-side queries in StudentRepository and StudentRepositoryCustomImpl,
+ * including the byte-ordered name search key on PostgreSQL.
+ * 
+ * The connection pool (reactive.r2dbc.*) is owned here rather than exposed
+ * as a ConnectionFactory bean: Spring Boot skips the JDBC DataSource (and
+ * with it JPA) when such a bean exists. For the same reason Boot's R2DBC
+ * auto-configuration is excluded in application.yml.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveStudentRepository implements DisposableBean {
+
+    private static final String COLUMNS = "SELECT id, name, email, phone, version, updated_at FROM students ";
+
+    // Rows requested from the driver at a time while streaming
+    private static final int FETCH_SIZE = 256;
+
+    private final ConnectionPool connectionPool;
+    private final DatabaseClient databaseClient;
+    // Whether the name search key is compared byte-wise (PostgreSQL, to match its index)
+    private final boolean byteOrderedNames;
+
+    public ReactiveStudentRepository(@Value("${reactive.r2dbc.url}") String url,
+                                     @Value("${reactive.r2dbc.username:}") String username,
+                                     @Value("${reactive.r2dbc.password:}") String password,
+                                     @Value("${reactive.r2dbc.pool-size:10}") int poolSize) {
+        ConnectionFactoryOptions parsed = ConnectionFactoryOptions.parse(url);
+        this.byteOrderedNames = "postgresql".equals(parsed.getValue(ConnectionFactoryOptions.DRIVER));
+        ConnectionFactoryOptions.Builder options = parsed.mutate();
+        if (!username.isEmpty()) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (!password.isEmpty()) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        this.connectionPool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .name("reactive-students")
+                .maxSize(poolSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(connectionPool);
+    }
+
+    /**
+     * Stream students with id greater than {@code afterId}, in id order.
+     */
+    public Flux<Student> findAllAfter(long afterId, int limit) {
+        return databaseClient.sql(COLUMNS + "WHERE id > :afterId ORDER BY id LIMIT :limit")
+                .filter(statement -> statement.fetchSize(FETCH_SIZE))
+                .bind("afterId", afterId)
+                .bind("limit", limit)
+                .map(ReactiveStudentRepository::toStudent)
+                .all();
+    }
+
+    public Mono<Student> findById(long id) {
+        return databaseClient.sql(COLUMNS + "WHERE id = :id")
+                .bind("id", id)
+                .map(ReactiveStudentRepository::toStudent)
+                .one();
+    }
+
+    /**
+     * Case-insensitive LIKE search on name in (lower(name), id) order, after the
+     * given position; pattern as built by StudentService.nameLikePattern.
+     *
+     * @param afterName name of the last student already received, or null for the first page
+     */
+    public Flux<Student> searchByName(String pattern, String afterName, long afterId, int limit) {
+        String match = pattern.startsWith("%") ? "lower(name)" : nameKey("name");
+        String sql = COLUMNS + "WHERE " + match + " LIKE :pattern ESCAPE '\\' "
+                + (afterName == null ? "" : "AND (" + nameKey("name") + ", id) > ("
+                        + nameKey("CAST(:afterName AS VARCHAR)") + ", :afterId) ")
+                + "ORDER BY " + nameKey("name") + ", id LIMIT :limit";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql)
+                .bind("pattern", pattern)
+                .bind("limit", limit);
+        if (afterName != null) {
+            spec = spec.bind("afterName", afterName).bind("afterId", afterId);
+        }
+        return spec.map(ReactiveStudentRepository::toStudent).all();
+    }
+
+    @Override
+    public void destroy() {
+        connectionPool.dispose();
+    }
+
+    private String nameKey(String expression) {
+        return byteOrderedNames
+                ? "(lower(" + expression + ") COLLATE \"C\")"
+                : "lower(" + expression + ")";
+    }
+
+    private static Student toStudent(Readable row) {
+        Student student = new Student(
+                row.get("name", String.class),
+                row.get("email", String.class),
+                row.get("phone", String.class));
+        student.setId(row.get("id", Long.class));
+        student.setVersion(row.get("version", Long.class));
+        student.setUpdatedAt(toInstant(row.get("updated_at")));
+        return student;
+    }
+
+    // Drivers differ in how they surface "timestamp with time zone"
+    private static Instant toInstant(Object value) {
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime.toInstant();
+        }
+        if (value instanceof LocalDateTime localDateTime) {
+            return localDateTime.toInstant(ZoneOffset.UTC);
+        }
+        return (Instant) value;
+    }
+}
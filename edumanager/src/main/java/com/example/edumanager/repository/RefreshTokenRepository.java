@@ -0,0 +1,47 @@
+package com.example.edumanager.repository;
+
+import com.example.edumanager.entity.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Optional;
+
+/**
+ * Repository interface for RefreshToken entity.
+ * Tokens are looked up by hash only; the raw value is never stored.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    /**
+     * Find a refresh token by the SHA-256 hash of its value.
+     */
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Mark a token as used, only if nobody else did first.
+     * 
+     * @return 1 if this caller won the rotation, 0 if the token was already revoked
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.id = :id AND r.revoked = false")
+    int revokeIfActive(@Param("id") Long id);
+
+    /**
+     * Revoke every token descending from the same login.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE RefreshToken r SET r.revoked = true WHERE r.familyId = :familyId AND r.revoked = false")
+    int revokeFamily(@Param("familyId") String familyId);
+
+    /**
+     * Remove tokens that can no longer be used.
+     */
+    @Modifying
+    @Query("DELETE FROM RefreshToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") Instant now);
+}
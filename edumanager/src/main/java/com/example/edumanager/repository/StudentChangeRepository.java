@@ -0,0 +1,54 @@
+package com.example.edumanager.repository;
+
+import com.example.edumanager.entity.StudentChange;
+import com.example.edumanager.event.StudentChangedEvent;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Repository for the student change log.
+ */
+@Repository
+public interface StudentChangeRepository extends JpaRepository<StudentChange, Long> {
+
+    /**
+     * Entries after the given seq, oldest first (one primary key range scan).
+     */
+    @Query("SELECT c FROM StudentChange c WHERE c.seq > :since ORDER BY c.seq ASC")
+    List<StudentChange> findAfter(@Param("since") long since, Limit limit);
+
+    /**
+     * Delete the entries superseded by a later entry for the same student, for
+     * the students logged in (from, to] only (their older entries are found
+     * through idx_student_changes_student_seq).
+     */
+    @Modifying
+    @Query("DELETE FROM StudentChange c WHERE c.studentId IN "
+            + "(SELECT w.studentId FROM StudentChange w WHERE w.seq > :from AND w.seq <= :to) AND EXISTS "
+            + "(SELECT 1 FROM StudentChange n WHERE n.studentId = c.studentId AND n.seq > c.seq)")
+    int deleteSuperseded(@Param("from") long from, @Param("to") long to);
+
+    /**
+     * Highest seq after the given one among entries of this type logged before
+     * the cutoff, or null if none.
+     */
+    @Query("SELECT max(c.seq) FROM StudentChange c "
+            + "WHERE c.seq > :after AND c.type = :type AND c.changedAt < :cutoff")
+    Long findLastSeqBefore(@Param("type") StudentChangedEvent.Type type, @Param("after") long after,
+                           @Param("cutoff") Instant cutoff);
+
+    /**
+     * Delete entries of this type in (after, through].
+     */
+    @Modifying
+    @Query("DELETE FROM StudentChange c WHERE c.type = :type AND c.seq > :after AND c.seq <= :through")
+    int deleteThrough(@Param("type") StudentChangedEvent.Type type, @Param("after") long after,
+                      @Param("through") long through);
+}
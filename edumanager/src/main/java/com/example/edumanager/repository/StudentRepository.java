@@ -1,32 +1,108 @@
 package com.example.edumanager.repository;
 
+import com.example.edumanager.dto.StudentVersion;
 import com.example.edumanager.entity.Student;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Student entity.
  * Spring Data JPA automatically provides CRUD operations.
  */
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
+public interface StudentRepository extends JpaRepository<Student, Long>, StudentRepositoryCustom {
+
+    /** Query cache region for {@link #findByEmail}. */
+    String BY_EMAIL_CACHE_REGION = "studentByEmail";
 
     /**
      * Find a student by email address.
+     * Query-cached like {@link UserRepository#findByUsername}; writes to
+     * students invalidate the cached results (native writes in
+     * {@link StudentRepositoryCustomImpl} evict the region themselves).
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BY_EMAIL_CACHE_REGION)
+    })
     Optional<Student> findByEmail(String email);
 
     /**
-     * Check if a student with the given email exists.
+     * Load only the version and modification time of a student (for conditional GETs).
+     */
+    @Query("SELECT new com.example.edumanager.dto.StudentVersion(s.id, s.version, s.updatedAt) "
+            + "FROM Student s WHERE s.id = :id")
+    Optional<StudentVersion> findVersionById(@Param("id") Long id);
+
+    /**
+     * Which of the given emails already belong to a student (one query for a whole batch).
      */
-    boolean existsByEmail(String email);
+    @Query("SELECT s.email FROM Student s WHERE s.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
 
     /**
      * Find students whose name contains the given string (case-insensitive).
+     * Unbounded full scan - prefer {@link #searchByName} for user-facing search.
      */
     List<Student> findByNameContainingIgnoreCase(String name);
-}
 
+    /**
+     * Keyset page ordered by id: rows strictly after the given id.
+     */
+    @Query("SELECT s FROM Student s WHERE s.id > :afterId ORDER BY s.id ASC")
+    List<Student> findPageOrderById(@Param("afterId") long afterId, Limit limit);
+
+    /**
+     * First keyset page ordered by name (ties broken by id).
+     */
+    @Query("SELECT s FROM Student s ORDER BY s.name ASC, s.id ASC")
+    List<Student> findFirstPageOrderByName(Limit limit);
+
+    /**
+     * Keyset page ordered by name: rows after the (name, id) position of the cursor.
+     */
+    @Query("SELECT s FROM Student s WHERE s.name > :afterName "
+            + "OR (s.name = :afterName AND s.id > :afterId) "
+            + "ORDER BY s.name ASC, s.id ASC")
+    List<Student> findPageOrderByName(@Param("afterName") String afterName,
+                                      @Param("afterId") long afterId,
+                                      Limit limit);
+
+    /**
+     * First keyset page ordered by email.
+     */
+    @Query("SELECT s FROM Student s ORDER BY s.email ASC")
+    List<Student> findFirstPageOrderByEmail(Limit limit);
+
+    /**
+     * Keyset page ordered by email. Email is unique, so it is a complete key on its own.
+     */
+    @Query("SELECT s FROM Student s WHERE s.email > :afterEmail ORDER BY s.email ASC")
+    List<Student> findPageOrderByEmail(@Param("afterEmail") String afterEmail, Limit limit);
+
+    /**
+     * Stream every student in id order through a forward-only cursor.
+     * The fetch size keeps the driver from buffering the whole result set
+     * (PostgreSQL only honours it inside a transaction), and read-only
+     * avoids keeping dirty-checking snapshots. Must be consumed inside a
+     * transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT s FROM Student s ORDER BY s.id ASC")
+    Stream<Student> streamAllOrderById();
+}
@@ -0,0 +1,53 @@
+package com.example.edumanager.repository;
+
+import com.example.edumanager.dto.StudentPatch;
+import com.example.edumanager.entity.Student;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Student queries and writes that Spring Data cannot derive, implemented in
+ * {@link StudentRepositoryCustomImpl}.
+ */
+public interface StudentRepositoryCustom {
+
+    /**
+     * Insert a new student unless one with the same email exists, in a single
+     * statement (no existence check beforehand, so no race between check and insert).
+     *
+     * On success the id, version and modification time are set on the passed
+     * object. The student is not attached to the persistence context.
+     *
+     * @return true if the row was inserted, false if the email is already taken
+     */
+    boolean insertIfEmailAbsent(Student student);
+
+    /**
+     * Apply the fields present in the patch with a single UPDATE that also bumps
+     * the version, without reading the row first.
+     *
+     * @param expectedVersion only update if the row is still at this version; null for any version
+     * @return the row as written, or empty if no row has this id (and version)
+     */
+    Optional<Student> patch(Long id, Long expectedVersion, StudentPatch patch);
+
+    /**
+     * Case-insensitive LIKE search on name, one keyset page at a time in
+     * (lower(name), id) order. Each page is an index range scan from the
+     * previous page's last row (on PostgreSQL, see SearchIndexInitializer).
+     *
+     * @param pattern   lower-cased LIKE pattern with wildcards in the term escaped by '\'
+     * @param afterName name of the last student on the previous page, or null for the first page
+     * @param afterId   id of that student (ignored for the first page)
+     */
+    List<Student> searchByName(String pattern, String afterName, long afterId, int limit);
+
+    /**
+     * Delete the students with these ids in one statement.
+     *
+     * @return the ids that existed and were deleted
+     */
+    List<Long> deleteAllByIdReturningIds(Collection<Long> ids);
+}
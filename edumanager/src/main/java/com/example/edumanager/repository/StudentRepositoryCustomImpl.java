@@ -0,0 +1,274 @@
+package com.example.edumanager.repository;
+
+import com.example.edumanager.dto.StudentPatch;
+import com.example.edumanager.entity.Student;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.H2Dialect;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Native-SQL implementation of {@link StudentRepositoryCustom}.
+ *
+ * The conditional insert is written per database:
+ * - PostgreSQL: INSERT ... ON CONFLICT (email) DO NOTHING
+ * - H2: MERGE ... WHEN NOT MATCHED THEN INSERT
+ * - otherwise: a plain INSERT; a duplicate then fails on the unique
+ *   constraint (reported as 409 by GlobalExceptionHandler)
+ *
+ * The patch UPDATE hands back the row it wrote in the same statement
+ * (PostgreSQL: UPDATE ... RETURNING, H2: SELECT ... FROM FINAL TABLE (UPDATE ...));
+ * other databases read it back by id afterwards. The batch DELETE reports
+ * the ids it removed the same way (DELETE ... RETURNING id / OLD TABLE).
+ *
+ * Name search pages by (lower(name), id). On PostgreSQL that key is compared
+ * in the "C" collation, which the B-tree idx_students_name_key (see
+ * SearchIndexInitializer) can both range-scan for "term%" patterns and return
+ * in order, so a page stops after LIMIT rows instead of sorting every match.
+ *
+ * Ids still come from Hibernate's pooled students_seq generator, so they
+ * mix freely with ids assigned by persist() and the bulk writers.
+ *
+ * Second-level cache: Hibernate treats a native executeUpdate() as a bulk
+ * write and empties the whole student region. The statements that return
+ * rows (all of them on PostgreSQL and H2, including the insert) look like
+ * reads to Hibernate instead, so they evict just the affected students and,
+ * where an email may have changed, the findByEmail query results.
+ */
+public class StudentRepositoryCustomImpl implements StudentRepositoryCustom {
+
+    private static final String COLUMNS = "id, name, email, phone, version, updated_at";
+
+    private static final String VALUES = ":id, :name, :email, :phone, 0, :updatedAt";
+
+    private final EntityManager entityManager;
+    private final Dialect dialect;
+    private final String insertIfAbsentSql;
+    // Whether the name search key is compared byte-wise (PostgreSQL, to match its index)
+    private final boolean byteOrderedNames;
+    // Whether insertIfAbsentSql returns the inserted id (as a query) or only a row count
+    private final boolean insertReturnsId;
+
+    public StudentRepositoryCustomImpl(EntityManager entityManager,
+                                       EntityManagerFactory entityManagerFactory) {
+        this.entityManager = entityManager;
+        this.dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        if (dialect instanceof PostgreSQLDialect) {
+            insertIfAbsentSql = "INSERT INTO students (" + COLUMNS + ") VALUES (" + VALUES + ") "
+                    + "ON CONFLICT (email) DO NOTHING RETURNING id";
+            insertReturnsId = true;
+            byteOrderedNames = true;
+        } else if (dialect instanceof H2Dialect) {
+            insertIfAbsentSql = "SELECT id FROM FINAL TABLE (MERGE INTO students t "
+                    + "USING (VALUES (CAST(:email AS VARCHAR))) s(email) ON t.email = s.email "
+                    + "WHEN NOT MATCHED THEN INSERT (" + COLUMNS + ") VALUES (" + VALUES + "))";
+            insertReturnsId = true;
+            byteOrderedNames = false;
+        } else {
+            insertIfAbsentSql = "INSERT INTO students (" + COLUMNS + ") VALUES (" + VALUES + ")";
+            insertReturnsId = false;
+            byteOrderedNames = false;
+        }
+    }
+
+    @Override
+    public boolean insertIfEmailAbsent(Student student) {
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = (IdentifierGenerator) session.getFactory().getMappingMetamodel()
+                .getEntityDescriptor(Student.class).getGenerator();
+        Long id = (Long) generator.generate(session, student);
+        // Columns hold microseconds at most; keep the returned value identical to a re-read
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+
+        NativeQuery<?> insert = entityManager.createNativeQuery(insertIfAbsentSql)
+                .setParameter("id", id)
+                .setParameter("name", student.getName())
+                .setParameter("email", student.getEmail())
+                .setParameter("phone", student.getPhone())
+                .setParameter("updatedAt", now)
+                .unwrap(NativeQuery.class);
+        boolean inserted;
+        if (insertReturnsId) {
+            inserted = !insert.addScalar("id", Long.class).getResultList().isEmpty();
+            // A cached "no student with this email" would now be wrong
+            evictFromCaches(List.of(), true);
+        } else {
+            inserted = insert.addSynchronizedEntityClass(Student.class).executeUpdate() > 0;
+        }
+        if (!inserted) {
+            // The id is simply skipped, just like one from a rolled-back insert
+            return false;
+        }
+        student.setId(id);
+        student.setVersion(0L);
+        student.setUpdatedAt(now);
+        return true;
+    }
+
+    @Override
+    public Optional<Student> patch(Long id, Long expectedVersion, StudentPatch patch) {
+        StringBuilder update = new StringBuilder("UPDATE students SET ");
+        if (patch.getName() != null) {
+            update.append("name = :name, ");
+        }
+        if (patch.getEmail() != null) {
+            update.append("email = :email, ");
+        }
+        if (patch.isPhoneSet()) {
+            update.append("phone = :phone, ");
+        }
+        update.append("version = version + 1, updated_at = :updatedAt WHERE id = :id");
+        if (expectedVersion != null) {
+            update.append(" AND version = :version");
+        }
+
+        NativeQuery<?> query;
+        if (dialect instanceof PostgreSQLDialect) {
+            query = bind(update + " RETURNING " + COLUMNS, id, expectedVersion, patch);
+        } else if (dialect instanceof H2Dialect) {
+            query = bind("SELECT " + COLUMNS + " FROM FINAL TABLE (" + update + ")",
+                    id, expectedVersion, patch);
+        } else {
+            if (bind(update.toString(), id, expectedVersion, patch)
+                    .addSynchronizedEntityClass(Student.class).executeUpdate() == 0) {
+                return Optional.empty();
+            }
+            query = entityManager.createNativeQuery("SELECT " + COLUMNS + " FROM students WHERE id = :id")
+                    .unwrap(NativeQuery.class)
+                    .setParameter("id", id);
+        }
+
+        evictFromCaches(List.of(id), patch.getEmail() != null);
+        List<?> rows = query
+                .addScalar("id", Long.class)
+                .addScalar("name", String.class)
+                .addScalar("email", String.class)
+                .addScalar("phone", String.class)
+                .addScalar("version", Long.class)
+                .addScalar("updated_at", Instant.class)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = (Object[]) rows.get(0);
+        Student student = new Student((String) row[1], (String) row[2], (String) row[3]);
+        student.setId((Long) row[0]);
+        student.setVersion((Long) row[4]);
+        student.setUpdatedAt((Instant) row[5]);
+        return Optional.of(student);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Student> searchByName(String pattern, String afterName, long afterId, int limit) {
+        // "%term%" goes to the trigram index, which is built on plain lower(name)
+        String match = pattern.startsWith("%") ? "lower(name)" : nameKey("name");
+        StringBuilder sql = new StringBuilder("SELECT * FROM students WHERE ")
+                .append(match).append(" LIKE :pattern ESCAPE '\\'");
+        if (afterName != null) {
+            sql.append(" AND (").append(nameKey("name")).append(", id) > (")
+                    .append(nameKey("CAST(:afterName AS VARCHAR)")).append(", :afterId)");
+        }
+        sql.append(" ORDER BY ").append(nameKey("name")).append(", id LIMIT :limit");
+
+        var query = entityManager.createNativeQuery(sql.toString(), Student.class)
+                .setParameter("pattern", pattern)
+                .setParameter("limit", limit);
+        if (afterName != null) {
+            query.setParameter("afterName", afterName).setParameter("afterId", afterId);
+        }
+        return query.getResultList();
+    }
+
+    @Override
+    public List<Long> deleteAllByIdReturningIds(Collection<Long> ids) {
+        String delete = "DELETE FROM students WHERE id IN (:ids)";
+        List<Long> deleted;
+        if (dialect instanceof PostgreSQLDialect) {
+            deleted = selectIds(delete + " RETURNING id", ids);
+        } else if (dialect instanceof H2Dialect) {
+            deleted = selectIds("SELECT id FROM OLD TABLE (" + delete + ")", ids);
+        } else {
+            deleted = selectIds("SELECT id FROM students WHERE id IN (:ids)", ids);
+            entityManager.createNativeQuery(delete)
+                    .setParameter("ids", ids)
+                    .unwrap(NativeQuery.class)
+                    .addSynchronizedEntityClass(Student.class)
+                    .executeUpdate();
+        }
+        evictFromCaches(deleted, true);
+        return deleted;
+    }
+
+    private String nameKey(String expression) {
+        return byteOrderedNames
+                ? "(lower(" + expression + ") COLLATE \"C\")"
+                : "lower(" + expression + ")";
+    }
+
+    // Hibernate does not see the returning statements as writes, so drop what they changed
+    // from the second-level cache: now, and again when the transaction ends, since a
+    // concurrent reader may cache the old state until then
+    private void evictFromCaches(Collection<Long> ids, boolean emailLookups) {
+        Cache cache = entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+        Runnable evict = () -> {
+            ids.forEach(id -> cache.evictEntityData(Student.class, id));
+            if (emailLookups) {
+                cache.evictQueryRegion(StudentRepository.BY_EMAIL_CACHE_REGION);
+            }
+        };
+        evict.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict.run();
+                }
+            });
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> selectIds(String sql, Collection<Long> ids) {
+        return entityManager.createNativeQuery(sql)
+                .setParameter("ids", ids)
+                .unwrap(NativeQuery.class)
+                .addScalar("id", Long.class)
+                .getResultList();
+    }
+
+    // Bind only the parameters the statement mentions
+    private NativeQuery<?> bind(String sql, Long id, Long expectedVersion, StudentPatch patch) {
+        NativeQuery<?> query = entityManager.createNativeQuery(sql).unwrap(NativeQuery.class);
+        query.setParameter("id", id);
+        query.setParameter("updatedAt", Instant.now().truncatedTo(ChronoUnit.MICROS));
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+        if (patch.getName() != null) {
+            query.setParameter("name", patch.getName());
+        }
+        if (patch.getEmail() != null) {
+            query.setParameter("email", patch.getEmail());
+        }
+        if (patch.isPhoneSet()) {
+            query.setParameter("phone", patch.getPhone());
+        }
+        return query;
+    }
+}
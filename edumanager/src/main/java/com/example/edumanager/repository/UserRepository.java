@@ -1,7 +1,13 @@
 package com.example.edumanager.repository;
 
+import com.example.edumanager.dto.UserTokenState;
 import com.example.edumanager.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -13,14 +19,30 @@ import java.util.Optional;
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
 
+    /** Query cache region for {@link #findByUsername}. */
+    String BY_USERNAME_CACHE_REGION = "userByUsername";
+
     /**
      * Find a user by username.
+     * The result (the user's id) is query-cached; the user and roles then
+     * come from the second-level cache, so a repeated lookup runs no SQL.
+     * Any write to users invalidates the cached results.
      */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = BY_USERNAME_CACHE_REGION)
+    })
     Optional<User> findByUsername(String username);
 
     /**
      * Check if a user with the given username exists.
      */
     boolean existsByUsername(String username);
-}
 
+    /**
+     * Load only the token version and enabled flag (no password, no roles join).
+     */
+    @Query("SELECT new com.example.edumanager.dto.UserTokenState(u.tokenVersion, u.enabled) "
+            + "FROM User u WHERE u.username = :username")
+    Optional<UserTokenState> findTokenStateByUsername(@Param("username") String username);
+}
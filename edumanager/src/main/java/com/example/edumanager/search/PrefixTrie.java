@@ -0,0 +1,198 @@
+package com.example.edumanager.search;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Compact character trie mapping normalized terms to student ids.
+ * 
+ * Children are kept in parallel sorted arrays (no per-edge objects or maps),
+ * so a node costs a few dozen bytes. Completions are produced in
+ * lexicographic order, shortest first, which makes "top N" a bounded walk.
+ * 
+ * Not thread-safe; callers guard it with a read/write lock.
+ */
+final class PrefixTrie {
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final long[] NO_IDS = new long[0];
+
+    private static final class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        long[] ids = NO_IDS;
+    }
+
+    private final Node root = new Node();
+    private long terms;
+
+    /**
+     * Associate an id with a term (no-op if already present).
+     */
+    void add(String term, long id) {
+        Node node = root;
+        for (int i = 0; i < term.length(); i++) {
+            char c = term.charAt(i);
+            int pos = Arrays.binarySearch(node.keys, c);
+            if (pos < 0) {
+                pos = -pos - 1;
+                Node child = new Node();
+                node.keys = insert(node.keys, pos, c);
+                node.children = insert(node.children, pos, child);
+                node = child;
+            } else {
+                node = node.children[pos];
+            }
+        }
+        if (indexOf(node.ids, id) < 0) {
+            node.ids = Arrays.copyOf(node.ids, node.ids.length + 1);
+            node.ids[node.ids.length - 1] = id;
+            terms++;
+        }
+    }
+
+    /**
+     * Remove an id from a term, pruning branches that become empty.
+     */
+    void remove(String term, long id) {
+        remove(root, term, 0, id);
+    }
+
+    // Returns true if the node at this depth is now empty and can be dropped by its parent
+    private boolean remove(Node node, String term, int depth, long id) {
+        if (depth == term.length()) {
+            int idx = indexOf(node.ids, id);
+            if (idx >= 0) {
+                node.ids = delete(node.ids, idx);
+                terms--;
+            }
+        } else {
+            int pos = Arrays.binarySearch(node.keys, term.charAt(depth));
+            if (pos >= 0 && remove(node.children[pos], term, depth + 1, id)) {
+                node.keys = delete(node.keys, pos);
+                node.children = delete(node.children, pos);
+            }
+        }
+        return node != root && node.ids.length == 0 && node.keys.length == 0;
+    }
+
+    /**
+     * Collect up to {@code limit} distinct ids whose terms start with the prefix.
+     */
+    void collect(String prefix, int limit, Set<Long> out) {
+        Node node = root;
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            int pos = Arrays.binarySearch(node.keys, prefix.charAt(i));
+            node = pos < 0 ? null : node.children[pos];
+        }
+        if (node != null) {
+            collect(node, limit, out);
+        }
+    }
+
+    private static void collect(Node node, int limit, Set<Long> out) {
+        for (long id : node.ids) {
+            if (out.size() >= limit) {
+                return;
+            }
+            out.add(id);
+        }
+        for (Node child : node.children) {
+            if (out.size() >= limit) {
+                return;
+            }
+            collect(child, limit, out);
+        }
+    }
+
+    /**
+     * Number of (term, id) pairs stored.
+     */
+    long terms() {
+        return terms;
+    }
+
+    /**
+     * Walk the trie and return {node count, approximate retained bytes}.
+     * Assumes a 64-bit JVM with compressed oops (16-byte array headers, 4-byte refs).
+     */
+    long[] footprint() {
+        long[] acc = new long[2];
+        footprint(root, acc);
+        return acc;
+    }
+
+    private static void footprint(Node node, long[] acc) {
+        acc[0]++;
+        acc[1] += 24;  // Node: header + 3 refs
+        if (node.keys.length > 0) {
+            acc[1] += align(16 + 2L * node.keys.length) + align(16 + 4L * node.children.length);
+        }
+        if (node.ids.length > 0) {
+            acc[1] += 16 + 8L * node.ids.length;
+        }
+        for (Node child : node.children) {
+            footprint(child, acc);
+        }
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private static int indexOf(long[] ids, long id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static char[] insert(char[] array, int pos, char value) {
+        char[] result = new char[array.length + 1];
+        System.arraycopy(array, 0, result, 0, pos);
+        result[pos] = value;
+        System.arraycopy(array, pos, result, pos + 1, array.length - pos);
+        return result;
+    }
+
+    private static Node[] insert(Node[] array, int pos, Node value) {
+        Node[] result = new Node[array.length + 1];
+        System.arraycopy(array, 0, result, 0, pos);
+        result[pos] = value;
+        System.arraycopy(array, pos, result, pos + 1, array.length - pos);
+        return result;
+    }
+
+    private static char[] delete(char[] array, int pos) {
+        if (array.length == 1) {
+            return NO_KEYS;
+        }
+        char[] result = new char[array.length - 1];
+        System.arraycopy(array, 0, result, 0, pos);
+        System.arraycopy(array, pos + 1, result, pos, array.length - pos - 1);
+        return result;
+    }
+
+    private static Node[] delete(Node[] array, int pos) {
+        if (array.length == 1) {
+            return NO_CHILDREN;
+        }
+        Node[] result = new Node[array.length - 1];
+        System.arraycopy(array, 0, result, 0, pos);
+        System.arraycopy(array, pos + 1, result, pos, array.length - pos - 1);
+        return result;
+    }
+
+    private static long[] delete(long[] array, int pos) {
+        if (array.length == 1) {
+            return NO_IDS;
+        }
+        long[] result = new long[array.length - 1];
+        System.arraycopy(array, 0, result, 0, pos);
+        System.arraycopy(array, pos + 1, result, pos, array.length - pos - 1);
+        return result;
+    }
+}
@@ -0,0 +1,457 @@
+package com.example.edumanager.search;
+
+import com.example.edumanager.dto.StudentChangeFeed;
+import com.example.edumanager.dto.StudentSearchHit;
+import com.example.edumanager.entity.Student;
+import com.example.edumanager.entity.StudentChange;
+import com.example.edumanager.event.StudentChangedEvent;
+import com.example.edumanager.exception.ChangeCursorExpiredException;
+import com.example.edumanager.repository.StudentRepository;
+import com.example.edumanager.service.StudentChangeLog;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.analysis.util.CharTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Embedded Lucene index over student name, email and phone.
+ * 
+ * Serves ranked, typo-tolerant search without touching the database:
+ * - exact term matches rank highest, then prefix matches, then fuzzy (edit distance) matches
+ * - every query word must match at least one field
+ * 
+ * Lifecycle:
+ * - The index follows the student change log (StudentChangeLog). Each commit
+ *   to disk records the seq it is complete through in the commit user data.
+ * - On startup the snapshot on disk is brought up to date by replaying the
+ *   log from that seq, which covers changes lost in a crash, made while the
+ *   application was down, or made by other instances. Without a seq, or when
+ *   the log no longer reaches back that far, the index is rebuilt.
+ * - After a local commit (StudentChangedEvent) and every
+ *   search.index.poll-interval-ms (for other instances' writes) new log
+ *   entries are applied on a background thread; the near-real-time reader is
+ *   refreshed by the next search, so a burst of writes (e.g. a bulk insert)
+ *   costs one refresh instead of one per row.
+ * - Changes are committed to disk periodically and on shutdown.
+ */
+@Component
+public class StudentSearchIndex implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentSearchIndex.class);
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_NAME = "name";
+    private static final String FIELD_EMAIL = "email";
+    private static final String FIELD_PHONE = "phone";
+    private static final String[] SEARCH_FIELDS = { FIELD_NAME, FIELD_EMAIL, FIELD_PHONE };
+
+    // Commit user data key: change log seq the committed index is complete through
+    private static final String COMMIT_CHANGE_SEQ = "changeSeq";
+
+    /** Upper bound on the number of ranked hits returned. */
+    public static final int MAX_RESULTS = 100;
+
+    private final Path indexPath;
+    private final StudentRepository studentRepository;
+    private final StudentChangeLog changeLog;
+    private final EntityManager entityManager;
+    // Read-write, so the routing DataSource keeps it on the primary (see rebuild())
+    private final TransactionTemplate primaryTx;
+    private final Analyzer analyzer = newAnalyzer();
+    private final AtomicBoolean uncommittedChanges = new AtomicBoolean(false);
+    private final AtomicBoolean staleReader = new AtomicBoolean(false);
+    private final AtomicBoolean catchUpRequested = new AtomicBoolean(false);
+    private final ExecutorService updater = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "student-search-index");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Change log seq applied through; -1 until run() has loaded or rebuilt the index.
+    // Written under this object's monitor, like every index write.
+    private volatile long appliedSeq = -1;
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    public StudentSearchIndex(@Value("${search.index.path}") String indexPath,
+                              StudentRepository studentRepository,
+                              StudentChangeLog changeLog,
+                              EntityManager entityManager,
+                              PlatformTransactionManager transactionManager) {
+        this.indexPath = Path.of(indexPath);
+        this.studentRepository = studentRepository;
+        this.changeLog = changeLog;
+        this.entityManager = entityManager;
+        this.primaryTx = new TransactionTemplate(transactionManager);
+    }
+
+    @PostConstruct
+    void open() throws IOException {
+        directory = FSDirectory.open(indexPath);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer)
+                .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+    }
+
+    /**
+     * Bring the persisted snapshot up to date from the change log, or rebuild it.
+     */
+    @Override
+    public void run(String... args) throws IOException {
+        Long snapshotSeq = committedChangeSeq();
+        if (snapshotSeq == null) {
+            logger.info("Student search index has no change log position - rebuilding");
+            rebuild();
+            return;
+        }
+        if (snapshotSeq > primaryTx.execute(status -> changeLog.currentSeq())) {
+            // Written against another database (e.g. a recreated in-memory one)
+            logger.info("Student search index snapshot (change {}) is ahead of the change log - rebuilding",
+                    snapshotSeq);
+            rebuild();
+            return;
+        }
+        synchronized (this) {
+            appliedSeq = snapshotSeq;
+            try {
+                int replayed = catchUp();
+                logger.info("Student search index loaded from snapshot at change {} ({} changes replayed)",
+                        snapshotSeq, replayed);
+            } catch (ChangeCursorExpiredException e) {
+                logger.info("Student search index snapshot (change {}) is older than the change log - rebuilding",
+                        snapshotSeq);
+                rebuild();
+            }
+        }
+    }
+
+    /**
+     * Re-index every student from the database.
+     * 
+     * The log position and the students are read in one transaction on the
+     * primary: from two (possibly differently lagging) replicas, the rows
+     * could miss changes at or below the seq, which would never be replayed.
+     */
+    public synchronized void rebuild() throws IOException {
+        long start = System.currentTimeMillis();
+        writer.deleteAll();
+
+        long[] seq = new long[1];
+        Long indexed = primaryTx.execute(status -> {
+            // Taken before the students are read: anything committed later is replayed on top
+            seq[0] = changeLog.currentSeq();
+            long count = 0;
+            try (Stream<Student> students = studentRepository.streamAllOrderById()) {
+                Iterator<Student> it = students.iterator();
+                while (it.hasNext()) {
+                    Student student = it.next();
+                    writer.addDocument(toDocument(student));
+                    entityManager.detach(student);
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return count;
+        });
+
+        appliedSeq = seq[0];
+        commit();
+        searcherManager.maybeRefreshBlocking();
+        uncommittedChanges.set(false);
+        logger.info("Student search index rebuilt: {} documents in {} ms",
+                indexed, System.currentTimeMillis() - start);
+        requestCatchUp();
+    }
+
+    /**
+     * A student change has committed here: apply it (and anything else new in the log) shortly.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        requestCatchUp();
+    }
+
+    /**
+     * Pick up changes committed by other instances.
+     */
+    @Scheduled(fixedDelayString = "${search.index.poll-interval-ms:1000}")
+    public void pollChangeLog() {
+        requestCatchUp();
+    }
+
+    /**
+     * Ranked search over name, email and phone.
+     * 
+     * @param text  free-text query, e.g. "jon smth"
+     * @param limit maximum number of hits (clamped to 1..MAX_RESULTS)
+     */
+    public List<StudentSearchHit> search(String text, int limit) {
+        Query query = buildQuery(text);
+        if (query == null) {
+            return List.of();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_RESULTS));
+
+        try {
+            if (staleReader.getAndSet(false)) {
+                searcherManager.maybeRefreshBlocking();
+            }
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                TopDocs top = searcher.search(query, max);
+                StoredFields storedFields = searcher.storedFields();
+                List<StudentSearchHit> hits = new ArrayList<>(top.scoreDocs.length);
+                for (ScoreDoc scoreDoc : top.scoreDocs) {
+                    Document doc = storedFields.document(scoreDoc.doc);
+                    hits.add(new StudentSearchHit(
+                            Long.valueOf(doc.get(FIELD_ID)),
+                            doc.get(FIELD_NAME),
+                            doc.get(FIELD_EMAIL),
+                            doc.get(FIELD_PHONE),
+                            scoreDoc.score));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Search index read failed", e);
+        }
+    }
+
+    /**
+     * Flush pending changes to the on-disk snapshot.
+     */
+    @Scheduled(fixedDelayString = "${search.index.commit-interval-ms}")
+    public synchronized void commitIfChanged() throws IOException {
+        if (uncommittedChanges.getAndSet(false)) {
+            commit();
+            logger.debug("Student search index committed through change {}", appliedSeq);
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        updater.shutdownNow();
+        synchronized (this) {
+            searcherManager.close();
+            setCommitData();
+            writer.close();  // commits pending changes
+            directory.close();
+        }
+    }
+
+    // At most one catch-up queued; a request while one runs queues the next
+    private void requestCatchUp() {
+        if (catchUpRequested.compareAndSet(false, true)) {
+            updater.execute(() -> {
+                catchUpRequested.set(false);
+                catchUpQuietly();
+            });
+        }
+    }
+
+    private synchronized void catchUpQuietly() {
+        try {
+            catchUp();
+        } catch (ChangeCursorExpiredException e) {
+            // Only after falling behind by more than the change log's tombstone retention
+            logger.warn("Student search index fell behind the change log - rebuilding");
+            try {
+                rebuild();
+            } catch (IOException | RuntimeException rebuildFailure) {
+                logger.error("Student search index rebuild failed: {}", rebuildFailure.getMessage());
+            }
+        } catch (IOException | RuntimeException e) {
+            // Retried from the same position on the next request or poll
+            logger.warn("Student search index update failed at change {}: {}", appliedSeq, e.getMessage());
+        }
+    }
+
+    /**
+     * Apply every change log entry after appliedSeq. Caller holds this object's monitor.
+     *
+     * @return number of entries applied
+     * @throws ChangeCursorExpiredException if the log no longer reaches back to appliedSeq
+     */
+    private int catchUp() throws IOException {
+        if (appliedSeq < 0) {
+            return 0;
+        }
+        int applied = 0;
+        StudentChangeFeed feed;
+        do {
+            feed = changeLog.changesSince(appliedSeq, StudentChangeLog.MAX_LIMIT);
+            for (StudentChange change : feed.changes()) {
+                Term idTerm = new Term(FIELD_ID, String.valueOf(change.getStudentId()));
+                if (change.getType() == StudentChangedEvent.Type.DELETED) {
+                    writer.deleteDocuments(idTerm);
+                } else {
+                    writer.updateDocument(idTerm, toDocument(change.getStudentId(),
+                            change.getName(), change.getEmail(), change.getPhone()));
+                }
+            }
+            // Only advanced once the entries are in the writer, so a commit never claims more
+            appliedSeq = feed.cursor();
+            applied += feed.changes().size();
+        } while (feed.hasMore());
+        if (applied > 0) {
+            uncommittedChanges.set(true);
+            staleReader.set(true);
+        }
+        return applied;
+    }
+
+    private void commit() throws IOException {
+        setCommitData();
+        writer.commit();
+    }
+
+    private void setCommitData() {
+        if (appliedSeq >= 0) {
+            writer.setLiveCommitData(Map.of(COMMIT_CHANGE_SEQ, String.valueOf(appliedSeq)).entrySet());
+        }
+    }
+
+    private Long committedChangeSeq() {
+        Iterable<Map.Entry<String, String>> commitData = writer.getLiveCommitData();
+        if (commitData != null) {
+            for (Map.Entry<String, String> entry : commitData) {
+                if (COMMIT_CHANGE_SEQ.equals(entry.getKey())) {
+                    return Long.valueOf(entry.getValue());
+                }
+            }
+        }
+        return null;
+    }
+
+    // Each query word becomes a group of exact/prefix/fuzzy alternatives across all fields;
+    // every group must match so "jon smith" does not return every "Jon".
+    private Query buildQuery(String text) {
+        List<String> words = analyze(text);
+        if (words.isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String word : words) {
+            BooleanQuery.Builder alternatives = new BooleanQuery.Builder();
+            int maxEdits = word.length() >= 6 ? 2 : word.length() >= 3 ? 1 : 0;
+            for (String field : SEARCH_FIELDS) {
+                Term term = new Term(field, word);
+                alternatives.add(new BoostQuery(new TermQuery(term), 4f), BooleanClause.Occur.SHOULD);
+                alternatives.add(new BoostQuery(new PrefixQuery(term), 2f), BooleanClause.Occur.SHOULD);
+                if (maxEdits > 0) {
+                    alternatives.add(new FuzzyQuery(term, maxEdits, 1), BooleanClause.Occur.SHOULD);
+                }
+            }
+            query.add(alternatives.build(), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return words;
+        }
+        try (TokenStream stream = analyzer.tokenStream(FIELD_NAME, text)) {
+            CharTermAttribute term = stream.addAttribute(CharTermAttribute.class);
+            stream.reset();
+            while (stream.incrementToken()) {
+                words.add(term.toString());
+            }
+            stream.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return words;
+    }
+
+    private static Document toDocument(Student student) {
+        return toDocument(student.getId(), student.getName(), student.getEmail(), student.getPhone());
+    }
+
+    private static Document toDocument(Long id, String name, String email, String phone) {
+        Document doc = new Document();
+        doc.add(new StringField(FIELD_ID, String.valueOf(id), Field.Store.YES));
+        doc.add(new TextField(FIELD_NAME, name, Field.Store.YES));
+        doc.add(new TextField(FIELD_EMAIL, email, Field.Store.YES));
+        if (phone != null) {
+            doc.add(new TextField(FIELD_PHONE, phone, Field.Store.YES));
+        }
+        return doc;
+    }
+
+    /**
+     * Splits on anything that is not a letter or digit (so "john.doe@mail.com"
+     * becomes john, doe, mail, com), lower-cases and strips accents.
+     */
+    private static Analyzer newAnalyzer() {
+        return new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = CharTokenizer.fromTokenCharPredicate(Character::isLetterOrDigit);
+                TokenStream stream = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizer));
+                return new TokenStreamComponents(tokenizer, stream);
+            }
+
+            @Override
+            protected TokenStream normalize(String fieldName, TokenStream in) {
+                return new ASCIIFoldingFilter(new LowerCaseFilter(in));
+            }
+        };
+    }
+}
@@ -0,0 +1,298 @@
+package com.example.edumanager.search;
+
+import com.example.edumanager.dto.StudentSuggestion;
+import com.example.edumanager.entity.Student;
+import com.example.edumanager.event.StudentChangedEvent;
+import com.example.edumanager.repository.StudentRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * In-memory autocomplete over student names and emails.
+ * 
+ * Each student is indexed under its normalized full name, each word of the
+ * name (so "smi" finds "John Smith") and its email. Lookups are a walk down
+ * a {@link PrefixTrie} and never touch the database.
+ * 
+ * Loaded once on startup, then kept current by StudentChangedEvents. Events
+ * that arrive while the startup load is still streaming win over the streamed
+ * rows, which may have been read before the change committed.
+ * 
+ * Size, for capacity planning (Micrometer, under the admin-only /actuator):
+ * - students.suggest.students, students.suggest.terms: entries in the structure
+ * - students.suggest.nodes, students.suggest.memory{part=trie|records}: trie
+ *   nodes and estimated retained bytes, measured by a walk of the trie at most
+ *   once per FOOTPRINT_MAX_AGE_MILLIS
+ */
+@Component
+public class StudentSuggester implements CommandLineRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentSuggester.class);
+
+    /** Upper bound on the number of suggestions returned. */
+    public static final int MAX_SUGGESTIONS = 50;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // The footprint walks every node, so scrapes reuse a recent measurement
+    private static final long FOOTPRINT_MAX_AGE_MILLIS = 60_000;
+
+    private record Footprint(long nodes, long trieBytes, long recordBytes, long measuredAt) {
+    }
+
+    private final StudentRepository studentRepository;
+    private final EntityManager entityManager;
+    // Read-write, so the routing DataSource keeps the startup load on the primary
+    private final TransactionTemplate primaryTx;
+
+    // Guarded by lock
+    private final PrefixTrie trie = new PrefixTrie();
+    private final Map<Long, StudentSuggestion> suggestions = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Ids changed by events during the startup load; null once it is done
+    private Set<Long> changedDuringLoad = new HashSet<>();
+
+    private volatile Footprint footprint;
+
+    public StudentSuggester(StudentRepository studentRepository,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry) {
+        this.studentRepository = studentRepository;
+        this.entityManager = entityManager;
+        this.primaryTx = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("students.suggest.students", this, suggester -> suggester.readLocked(suggester.suggestions::size))
+                .description("Students in the autocomplete structure")
+                .register(meterRegistry);
+        Gauge.builder("students.suggest.terms", this, suggester -> suggester.readLocked(suggester.trie::terms))
+                .description("Distinct terms in the autocomplete trie")
+                .register(meterRegistry);
+        Gauge.builder("students.suggest.nodes", this, suggester -> suggester.recentFootprint().nodes())
+                .description("Nodes in the autocomplete trie")
+                .register(meterRegistry);
+        Gauge.builder("students.suggest.memory", this, suggester -> suggester.recentFootprint().trieBytes())
+                .description("Estimated memory retained by the autocomplete structure")
+                .tag("part", "trie")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+        Gauge.builder("students.suggest.memory", this, suggester -> suggester.recentFootprint().recordBytes())
+                .description("Estimated memory retained by the autocomplete structure")
+                .tag("part", "records")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Load every student into the trie, from the primary: nothing replays the
+     * changes a lagging read replica would still be missing.
+     */
+    @Override
+    public void run(String... args) {
+        long start = System.currentTimeMillis();
+        primaryTx.executeWithoutResult(status -> {
+            try (Stream<Student> students = studentRepository.streamAllOrderById()) {
+                Iterator<Student> it = students.iterator();
+                while (it.hasNext()) {
+                    Student student = it.next();
+                    putStreamed(student);
+                    entityManager.detach(student);
+                }
+            }
+        });
+        lock.writeLock().lock();
+        try {
+            changedDuringLoad = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Footprint measured = measureFootprint();
+        footprint = measured;
+        logger.info("Student suggester loaded in {} ms: {} students, {} trie nodes, ~{} bytes",
+                System.currentTimeMillis() - start, readLocked(suggestions::size), measured.nodes(),
+                measured.trieBytes() + measured.recordBytes());
+    }
+
+    /**
+     * Apply a committed student change.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        if (event.type() == StudentChangedEvent.Type.DELETED) {
+            lock.writeLock().lock();
+            try {
+                markChangedLocked(event.studentId());
+                removeLocked(event.studentId());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } else {
+            Student student = event.student();
+            StudentSuggestion suggestion = suggestionOf(student);
+            lock.writeLock().lock();
+            try {
+                markChangedLocked(student.getId());
+                putLocked(suggestion);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Top suggestions whose name, name word or email starts with the prefix,
+     * in alphabetical order of the matched term.
+     */
+    public List<StudentSuggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty()) {
+            return List.of();
+        }
+        int max = Math.max(1, Math.min(limit, MAX_SUGGESTIONS));
+
+        lock.readLock().lock();
+        try {
+            Set<Long> ids = new LinkedHashSet<>();
+            trie.collect(normalized, max, ids);
+            List<StudentSuggestion> result = new ArrayList<>(ids.size());
+            for (Long id : ids) {
+                result.add(suggestions.get(id));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Footprint recentFootprint() {
+        Footprint current = footprint;
+        if (current == null || System.currentTimeMillis() - current.measuredAt() > FOOTPRINT_MAX_AGE_MILLIS) {
+            current = measureFootprint();
+            footprint = current;
+        }
+        return current;
+    }
+
+    // Trie nodes and bytes, plus the per-student suggestion records
+    private Footprint measureFootprint() {
+        lock.readLock().lock();
+        try {
+            long[] trieFootprint = trie.footprint();
+            long recordBytes = 0;
+            for (StudentSuggestion s : suggestions.values()) {
+                // HashMap entry + boxed key + record + two strings (Latin-1 compact strings)
+                recordBytes += 32 + 16 + 24 + stringBytes(s.getName()) + stringBytes(s.getEmail());
+            }
+            return new Footprint(trieFootprint[0], trieFootprint[1], recordBytes, System.currentTimeMillis());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private <T> T readLocked(Supplier<T> read) {
+        lock.readLock().lock();
+        try {
+            return read.get();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // A row from the startup load, unless an event already applied a newer state
+    private void putStreamed(Student student) {
+        StudentSuggestion suggestion = suggestionOf(student);
+        lock.writeLock().lock();
+        try {
+            if (!changedDuringLoad.contains(student.getId())) {
+                putLocked(suggestion);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markChangedLocked(Long id) {
+        if (changedDuringLoad != null) {
+            changedDuringLoad.add(id);
+        }
+    }
+
+    private void putLocked(StudentSuggestion suggestion) {
+        removeLocked(suggestion.getId());
+        suggestions.put(suggestion.getId(), suggestion);
+        for (String term : termsOf(suggestion)) {
+            trie.add(term, suggestion.getId());
+        }
+    }
+
+    private static StudentSuggestion suggestionOf(Student student) {
+        return new StudentSuggestion(student.getId(), student.getName(), student.getEmail());
+    }
+
+    private void removeLocked(Long id) {
+        StudentSuggestion previous = suggestions.remove(id);
+        if (previous != null) {
+            for (String term : termsOf(previous)) {
+                trie.remove(term, id);
+            }
+        }
+    }
+
+    private static Set<String> termsOf(StudentSuggestion suggestion) {
+        Set<String> terms = new LinkedHashSet<>();
+        String name = normalize(suggestion.getName());
+        if (!name.isEmpty()) {
+            terms.add(name);
+            for (String word : WHITESPACE.split(name)) {
+                terms.add(word);
+            }
+        }
+        String email = normalize(suggestion.getEmail());
+        if (!email.isEmpty()) {
+            terms.add(email);
+        }
+        return terms;
+    }
+
+    /**
+     * Lower-case, strip accents and collapse whitespace, so "  José " matches "jose".
+     */
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        String stripped = DIACRITICS.matcher(decomposed).replaceAll("");
+        return WHITESPACE.matcher(stripped.trim()).replaceAll(" ").toLowerCase(Locale.ROOT);
+    }
+
+    private static long stringBytes(String value) {
+        return value == null ? 0 : 24 + 16 + value.length();
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.edumanager.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+
+/**
+ * Spring Security user that also carries the user's token version,
+ * so JwtUtils can embed it in newly issued tokens without another query.
+ */
+public class AppUserDetails extends User {
+
+    private final int tokenVersion;
+
+    public AppUserDetails(String username, String password, boolean enabled,
+                          Collection<? extends GrantedAuthority> authorities, int tokenVersion) {
+        super(username, password, enabled, true, true, true, authorities);
+        this.tokenVersion = tokenVersion;
+    }
+
+    public int getTokenVersion() {
+        return tokenVersion;
+    }
+}
@@ -1,14 +1,30 @@
 package com.example.edumanager.security;
 
+import com.example.edumanager.config.ReadReplicaRoutingDataSource;
 import com.example.edumanager.entity.User;
+import com.example.edumanager.event.UserChangedEvent;
 import com.example.edumanager.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 /**
@@ -16,42 +32,133 @@ import java.util.stream.Collectors;
  * 
  * This service is used by Spring Security to load user details
  * during authentication. It bridges our User entity with Spring Security.
+ * 
+ * Loaded users are cached (cache "userDetails", size/TTL from spring.cache.*)
+ * as immutable snapshots; every call builds a fresh UserDetails from the
+ * snapshot, because Spring Security erases credentials on the instance it
+ * is handed after login. Entries are evicted after commit whenever the user
+ * row changes (UserChangedEvent: save, disable, role change, password change).
+ * Each of those also bumps a generation counter: a miss only fills the cache
+ * if no user change committed while it loaded, so a user read just before a
+ * change cannot be put back after its eviction. Misses are loaded from the
+ * primary, never from a (possibly lagging) read replica; a user that was read
+ * from a replica anyway is used but not cached.
+ * 
+ * Metrics: cache.gets{cache=userDetails} for hit rate, users.details.load
+ * for the latency of database loads on a miss.
+ * 
+ * Also stores rehashed passwords when the login flow upgrades a hash
+ * to the current BCrypt strength.
  */
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
+
+    public static final String USER_DETAILS = "userDetails";
+
+    /**
+     * Immutable copy of what a UserDetails needs; never handed out directly.
+     */
+    private record UserSnapshot(String username, String password, boolean enabled,
+                                List<String> roles, int tokenVersion) {
+    }
 
     private final UserRepository userRepository;
+    private final Cache userDetailsCache;
+    private final AtomicLong generation = new AtomicLong();
+    private final Timer loadTimer;
+    private final TransactionTemplate primaryTx;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    CacheManager cacheManager,
+                                    MeterRegistry meterRegistry,
+                                    PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
+        this.primaryTx = new TransactionTemplate(transactionManager);
+        this.userDetailsCache = Objects.requireNonNull(cacheManager.getCache(USER_DETAILS),
+                "Cache '" + USER_DETAILS + "' is not configured");
+        this.loadTimer = Timer.builder("users.details.load")
+                .description("Time to load a user and its roles from the database")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
     }
 
     /**
      * Load user by username for authentication.
+     * SUPPORTS: a cache hit does not open a transaction; a miss loads
+     * the user in a read-write transaction of its own, which the routing
+     * DataSource sends to the primary.
      * 
      * @param username the username to search for
      * @return UserDetails object for Spring Security
      * @throws UsernameNotFoundException if user not found
      */
     @Override
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        UserSnapshot snapshot = userDetailsCache.get(username, UserSnapshot.class);
+        if (snapshot == null) {
+            // Read before loading: a change committing meanwhile makes the result unfit to cache
+            long loadGeneration = generation.get();
+            long replicaMark = ReadReplicaRoutingDataSource.replicaReadMark();
+            snapshot = loadTimer.record(() -> primaryTx.execute(status -> userRepository.findByUsername(username)
+                    .map(CustomUserDetailsService::snapshotOf)
+                    .orElse(null)));
+            if (snapshot == null) {
+                throw new UsernameNotFoundException("User not found with username: " + username);
+            }
+            if (generation.get() == loadGeneration
+                    && !ReadReplicaRoutingDataSource.readFromReplicaSince(replicaMark)) {
+                userDetailsCache.put(username, snapshot);
+            }
+        }
+        return toUserDetails(snapshot);
+    }
+
+    /**
+     * Store an upgraded password hash. Called by DaoAuthenticationProvider
+     * after a successful login whose stored hash is weaker than the current
+     * encoder setting. Tokens stay valid: the password itself is unchanged.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByUsername(userDetails.getUsername())
                 .orElseThrow(() -> new UsernameNotFoundException(
-                        "User not found with username: " + username
-                ));
-
-        // Convert our User entity to Spring Security's UserDetails
-        return org.springframework.security.core.userdetails.User.builder()
-                .username(user.getUsername())
-                .password(user.getPassword())
-                .authorities(
-                        user.getRoles().stream()
-                                .map(SimpleGrantedAuthority::new)
-                                .collect(Collectors.toList())
-                )
-                .disabled(!user.isEnabled())
-                .build();
+                        "User not found with username: " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        logger.info("Upgraded password hash for user '{}'", user.getUsername());
+        return toUserDetails(snapshotOf(user));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        // Bumped before evicting, so a load that read the old user can no longer fill the cache
+        generation.incrementAndGet();
+        userDetailsCache.evict(event.username());
+    }
+
+    private static UserDetails toUserDetails(UserSnapshot snapshot) {
+        // Convert our User snapshot to Spring Security's UserDetails
+        return new AppUserDetails(
+                snapshot.username(),
+                snapshot.password(),
+                snapshot.enabled(),
+                snapshot.roles().stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .collect(Collectors.toList()),
+                snapshot.tokenVersion()
+        );
     }
-}
 
+    private static UserSnapshot snapshotOf(User user) {
+        return new UserSnapshot(
+                user.getUsername(),
+                user.getPassword(),
+                user.isEnabled(),
+                List.copyOf(user.getRoles()),
+                user.getTokenVersion()
+        );
+    }
+}
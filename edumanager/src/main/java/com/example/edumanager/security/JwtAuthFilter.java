@@ -1,5 +1,6 @@
 package com.example.edumanager.security;
 
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,8 +8,12 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
@@ -17,6 +22,7 @@ import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
 
 /**
  * JWT Authentication Filter.
@@ -28,6 +34,16 @@ import java.io.IOException;
  * 
  * Flow:
  * Request -> Extract Token -> Validate -> Load UserDetails -> Set Authentication -> Continue
+ * 
+ * Stateless mode (jwt.stateless=true, the default): tokens that carry roles
+ * and a token version are turned into an Authentication straight from the
+ * verified claims. The only per-request check is TokenRevocationService,
+ * a cached comparison of the token version with the user's current one,
+ * which rejects tokens of disabled users or issued before a role change.
+ * Tokens without those claims (or stateless=false) use the user lookup.
+ * 
+ * Individually revoked tokens (logout) are rejected by ID through
+ * RevokedTokenRegistry, an in-memory check that needs no database access.
  */
 @Component
 public class JwtAuthFilter extends OncePerRequestFilter {
@@ -40,6 +56,15 @@ public class JwtAuthFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @Value("${jwt.stateless:true}")
+    private boolean stateless;
+
     /**
      * Main filter method - processes each request.
      */
@@ -53,14 +78,29 @@ public class JwtAuthFilter extends OncePerRequestFilter {
             // Step 1: Extract JWT token from request header
             String jwt = parseJwt(request);
             
-            // Step 2: If token exists and is valid
-            if (jwt != null && jwtUtils.validateToken(jwt)) {
+            // Step 2: Verify the token once (signature + expiry) and get its claims
+            Claims claims = jwt != null ? jwtUtils.verifyToken(jwt) : null;
+            if (claims != null && claims.getId() != null
+                    && revokedTokenRegistry.isRevoked(claims.getId())) {
+                logger.debug("Token {} has been revoked", claims.getId());
+                claims = null;
+            }
+            if (claims != null) {
                 
-                // Step 3: Extract username from token
-                String username = jwtUtils.getUsernameFromToken(jwt);
+                // Step 3: Extract username from claims
+                String username = claims.getSubject();
                 
-                // Step 4: Load user details from database/memory
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                // Step 4: Resolve the principal - from the claims themselves in
+                // stateless mode, otherwise by loading the user
+                UserDetails userDetails = stateless ? userFromClaims(claims) : null;
+                if (userDetails == null) {
+                    userDetails = userDetailsService.loadUserByUsername(username);
+                } else if (!tokenRevocationService.isTokenCurrent(username,
+                        claims.get(JwtUtils.CLAIM_TOKEN_VERSION, Integer.class))) {
+                    logger.debug("Token for user '{}' has been revoked", username);
+                    filterChain.doFilter(request, response);
+                    return;
+                }
                 
                 // Step 5: Create authentication token
                 UsernamePasswordAuthenticationToken authentication =
@@ -89,6 +129,22 @@ public class JwtAuthFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Build the principal from verified claims, or return null if the token
+     * predates role/version claims and needs a user lookup instead.
+     */
+    private UserDetails userFromClaims(Claims claims) {
+        List<?> roles = claims.get(JwtUtils.CLAIM_ROLES, List.class);
+        if (roles == null || claims.get(JwtUtils.CLAIM_TOKEN_VERSION) == null) {
+            return null;
+        }
+        List<GrantedAuthority> authorities = roles.stream()
+                .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(String.valueOf(role)))
+                .toList();
+        // No password: the token is the credential
+        return new User(claims.getSubject(), "", authorities);
+    }
+
     /**
      * Extract JWT token from Authorization header.
      * Expected format: "Bearer <token>"
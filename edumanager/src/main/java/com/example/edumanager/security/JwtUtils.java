@@ -1,16 +1,28 @@
 package com.example.edumanager.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.List;
+import java.util.UUID;
 
 /**
  * JWT utility class for generating and validating JWT tokens.
@@ -18,27 +30,53 @@ import java.util.Date;
  * 
  * Key methods:
  * - generateToken(): Creates a new JWT token for authenticated user
+ * - verifyToken(): Validates signature and expiration once and returns the claims
  * - validateToken(): Validates the JWT token signature and expiration
  * - getUsernameFromToken(): Extracts username from JWT token
+ * 
+ * The signing key and parser are built once at startup. Successfully verified
+ * tokens are remembered by SHA-256 digest until they expire (bounded by
+ * jwt.verified-cache-size), so a client re-sending the same token skips the
+ * HMAC check and JSON parsing entirely.
+ * 
+ * Tokens issued at login carry the user's roles and token version, so
+ * requests can be authenticated from the token alone (see JwtAuthFilter).
+ * Every token has a unique ID ("jti") so it can be revoked on its own
+ * (see RevokedTokenRegistry); access tokens are short-lived and renewed
+ * with a refresh token (see RefreshTokenService).
  */
 @Component
 public class JwtUtils {
 
-    private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+    /** Claim holding the user's granted authorities, e.g. ["ROLE_ADMIN", "ROLE_USER"]. */
+    public static final String CLAIM_ROLES = "roles";
+
+    /** Claim holding the user's tokenVersion at issue time. */
+    public static final String CLAIM_TOKEN_VERSION = "tv";
 
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
 
-    @Value("${jwt.expiration-ms}")
-    private int jwtExpirationMs;
+    private final int jwtExpirationMs;
+    private final SecretKey signingKey;
+    private final JwtParser jwtParser;
+    private final Cache<ByteBuffer, Claims> verifiedTokens;
 
-    /**
-     * Get the signing key from the secret.
-     * Uses HMAC-SHA algorithm for signing.
-     */
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    public JwtUtils(@Value("${jwt.secret}") String jwtSecret,
+                    @Value("${jwt.expiration-ms}") int jwtExpirationMs,
+                    @Value("${jwt.verified-cache-size:10000}") int verifiedCacheSize,
+                    MeterRegistry meterRegistry) {
+        this.jwtExpirationMs = jwtExpirationMs;
+        // HMAC-SHA key and a thread-safe parser, built once instead of per call
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtVerifiedTokens");
     }
 
     /**
@@ -48,12 +86,41 @@ public class JwtUtils {
      * @return JWT token string
      */
     public String generateToken(Authentication authentication) {
-        UserDetails userPrincipal = (UserDetails) authentication.getPrincipal();
-        return generateTokenFromUsername(userPrincipal.getUsername());
+        return generateToken((UserDetails) authentication.getPrincipal());
+    }
+
+    /**
+     * Generate a JWT token for a loaded user (e.g. when refreshing).
+     * 
+     * @param userPrincipal the user the token is issued to
+     * @return JWT token string
+     */
+    public String generateToken(UserDetails userPrincipal) {
+        List<String> roles = userPrincipal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .sorted()
+                .toList();
+        int tokenVersion = userPrincipal instanceof AppUserDetails appUser
+                ? appUser.getTokenVersion()
+                : 0;
+
+        Date now = new Date();
+        Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
+
+        return Jwts.builder()
+                .id(UUID.randomUUID().toString())
+                .subject(userPrincipal.getUsername())
+                .claim(CLAIM_ROLES, roles)
+                .claim(CLAIM_TOKEN_VERSION, tokenVersion)
+                .issuedAt(now)
+                .expiration(expiryDate)
+                .signWith(signingKey)
+                .compact();
     }
 
     /**
      * Generate a JWT token from username.
+     * The token has no roles claim, so requests using it fall back to a user lookup.
      * 
      * @param username the username to encode in the token
      * @return JWT token string
@@ -63,13 +130,54 @@ public class JwtUtils {
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
         return Jwts.builder()
+                .id(UUID.randomUUID().toString())
                 .subject(username)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
 
+    /**
+     * @return lifetime of newly issued access tokens in milliseconds
+     */
+    public long getExpirationMs() {
+        return jwtExpirationMs;
+    }
+
+    /**
+     * Verify a token once and return its claims.
+     * Checks signature and expiration; recently verified tokens are served
+     * from the digest cache without re-checking the signature.
+     * 
+     * @param token JWT token string
+     * @return verified claims, or null if the token is invalid or expired
+     */
+    public Claims verifyToken(String token) {
+        ByteBuffer digest = digest(token);
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.getExpiration().getTime() > System.currentTimeMillis()) {
+            return cached;
+        }
+
+        try {
+            Claims claims = jwtParser.parseSignedClaims(token).getPayload();
+            if (claims.getExpiration() != null) {
+                verifiedTokens.put(digest, claims);
+            }
+            return claims;
+        } catch (MalformedJwtException e) {
+            logger.error("Invalid JWT token: {}", e.getMessage());
+        } catch (ExpiredJwtException e) {
+            logger.error("JWT token is expired: {}", e.getMessage());
+        } catch (UnsupportedJwtException e) {
+            logger.error("JWT token is unsupported: {}", e.getMessage());
+        } catch (IllegalArgumentException e) {
+            logger.error("JWT claims string is empty: {}", e.getMessage());
+        }
+        return null;
+    }
+
     /**
      * Extract username from JWT token.
      * 
@@ -77,10 +185,7 @@ public class JwtUtils {
      * @return username stored in the token
      */
     public String getUsernameFromToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
+        return jwtParser.parseSignedClaims(token)
                 .getPayload()
                 .getSubject();
     }
@@ -93,21 +198,39 @@ public class JwtUtils {
      * @return true if valid, false otherwise
      */
     public boolean validateToken(String token) {
+        return verifyToken(token) != null;
+    }
+
+    private static ByteBuffer digest(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (MalformedJwtException e) {
-            logger.error("Invalid JWT token: {}", e.getMessage());
-        } catch (ExpiredJwtException e) {
-            logger.error("JWT token is expired: {}", e.getMessage());
-        } catch (UnsupportedJwtException e) {
-            logger.error("JWT token is unsupported: {}", e.getMessage());
-        } catch (IllegalArgumentException e) {
-            logger.error("JWT claims string is empty: {}", e.getMessage());
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(sha256.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Keeps each verified token only until its own "exp" claim.
+     */
+    private static final class UntilTokenExpiry implements Expiry<ByteBuffer, Claims> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return Math.max(0, remainingMs) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime,
+                                      long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime,
+                                    long currentDuration) {
+            return currentDuration;
         }
-        return false;
     }
 }
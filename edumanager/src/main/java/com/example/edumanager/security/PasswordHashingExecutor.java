@@ -0,0 +1,88 @@
+package com.example.edumanager.security;
+
+import com.example.edumanager.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Fixed-size executor for password hashing (BCrypt checks during login).
+ * 
+ * Keeps slow hashes off the Tomcat request threads so a burst of logins
+ * cannot starve other endpoints. The queue is bounded: once it is full,
+ * submit() fails fast with a ServiceBusyException (503 + Retry-After)
+ * instead of letting callers pile up.
+ * 
+ * Metrics: executor.queued / executor.active {name=passwordHashing} for
+ * queue depth and busy threads, auth.hashing.duration for time spent
+ * hashing, auth.hashing.rejected for requests turned away.
+ */
+@Component
+public class PasswordHashingExecutor implements DisposableBean {
+
+    private final ThreadPoolExecutor executor;
+    private final Timer hashTimer;
+    private final Counter rejected;
+    private final long retryAfterSeconds;
+
+    public PasswordHashingExecutor(@Value("${auth.hashing.threads:0}") int threads,
+                                   @Value("${auth.hashing.queue-capacity:64}") int queueCapacity,
+                                   @Value("${auth.hashing.retry-after-seconds:1}") long retryAfterSeconds,
+                                   MeterRegistry meterRegistry) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreads(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.hashTimer = Timer.builder("auth.hashing.duration")
+                .description("Time spent verifying a password on the hashing executor")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("auth.hashing.rejected")
+                .description("Password checks rejected because the hashing queue was full")
+                .register(meterRegistry);
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "passwordHashing");
+    }
+
+    /**
+     * Run a password check on the hashing pool.
+     * 
+     * @throws ServiceBusyException if the queue is full
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(() -> hashTimer.record(task), executor);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceBusyException("Too many login attempts in progress, please retry shortly",
+                    retryAfterSeconds);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.edumanager.security;
+
+import com.example.edumanager.dto.ApiResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client rate limiting filter.
+ * 
+ * Runs right after JwtAuthFilter, so USER policies can key on the
+ * authenticated username. Each policy keeps one token bucket per client;
+ * a request that finds its bucket empty gets 429 with Retry-After.
+ * 
+ * A bucket is a single AtomicLong holding the time at which it will be full
+ * again (the GCRA form of a token bucket), updated with compare-and-set, so
+ * admitting a request never takes a lock. Buckets live in a Caffeine cache
+ * per policy, bounded by rate-limit.max-clients and dropped after
+ * rate-limit.idle-timeout without requests.
+ * 
+ * The client IP is request.getRemoteAddr(); behind a proxy set
+ * server.forward-headers-strategy so it reflects X-Forwarded-For.
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private final boolean enabled;
+    private final List<Limiter> limiters;
+    private final ObjectMapper objectMapper;
+
+    public RateLimitFilter(RateLimitProperties properties, ObjectMapper objectMapper,
+                           MeterRegistry meterRegistry) {
+        this.enabled = properties.enabled();
+        this.objectMapper = objectMapper;
+        PathPatternParser parser = new PathPatternParser();
+        this.limiters = properties.policies().stream()
+                .map(policy -> new Limiter(policy, parser.parse(policy.path()), properties, meterRegistry))
+                .toList();
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || limiters.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        PathContainer path = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        for (Limiter limiter : limiters) {
+            if (limiter.matches(request.getMethod(), path)) {
+                long waitNanos = limiter.tryAcquire(clientKey(limiter.policy, request));
+                if (waitNanos > 0) {
+                    reject(response, limiter, waitNanos);
+                    return;
+                }
+                break;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private static String clientKey(RateLimitProperties.Policy policy, HttpServletRequest request) {
+        if (policy.key() == RateLimitProperties.KeyType.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "user:" + authentication.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, Limiter limiter, long waitNanos)
+            throws IOException {
+        limiter.rejected.increment();
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+        logger.debug("Rate limit '{}' exceeded, retry after {}s", limiter.policy.name(), retryAfterSeconds);
+
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                ApiResponse.error("Too many requests, please retry later"));
+    }
+
+    /**
+     * Token buckets for one policy.
+     */
+    private static final class Limiter {
+
+        private final RateLimitProperties.Policy policy;
+        private final PathPattern pathPattern;
+        private final long intervalNanos;   // time to refill one token
+        private final long burstNanos;      // time to refill the whole bucket
+        private final Cache<String, AtomicLong> buckets;
+        private final Counter rejected;
+
+        Limiter(RateLimitProperties.Policy policy, PathPattern pathPattern,
+                RateLimitProperties properties, MeterRegistry meterRegistry) {
+            if (policy.capacity() < 1 || policy.refillPerSecond() <= 0) {
+                throw new IllegalArgumentException("Rate limit policy '" + policy.name()
+                        + "' needs capacity >= 1 and refill-per-second > 0");
+            }
+            this.policy = policy;
+            this.pathPattern = pathPattern;
+            this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / policy.refillPerSecond());
+            this.burstNanos = intervalNanos * policy.capacity();
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(properties.maxClients())
+                    .expireAfterAccess(properties.idleTimeout())
+                    .recordStats()
+                    .build();
+            CaffeineCacheMetrics.monitor(meterRegistry, buckets, "rateLimit." + policy.name());
+            this.rejected = Counter.builder("http.ratelimit.rejected")
+                    .description("Requests rejected by the rate limiter")
+                    .tag("policy", policy.name())
+                    .register(meterRegistry);
+        }
+
+        boolean matches(String method, PathContainer path) {
+            return (policy.method() == null || policy.method().equalsIgnoreCase(method))
+                    && pathPattern.matches(path);
+        }
+
+        /**
+         * Take one token from the client's bucket.
+         * 
+         * @return 0 if admitted, otherwise nanoseconds until a token is available
+         */
+        long tryAcquire(String clientKey) {
+            AtomicLong fullAt = buckets.get(clientKey, key -> new AtomicLong(Long.MIN_VALUE));
+            long now = System.nanoTime();
+            while (true) {
+                long current = fullAt.get();
+                long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+                long next = base + intervalNanos;
+                long overflow = next - now - burstNanos;
+                if (overflow > 0) {
+                    return overflow;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.edumanager.security;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Rate limit settings (prefix "rate-limit" in application.yml).
+ * 
+ * Policies are matched in order; the first whose method and path match a
+ * request applies, and requests matching no policy are not limited.
+ * 
+ * @param enabled     turn the filter off entirely
+ * @param idleTimeout forget a client's bucket after this long without requests
+ * @param maxClients  upper bound on tracked clients per policy
+ * @param policies    per-route limits
+ */
+@ConfigurationProperties(prefix = "rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("10m") Duration idleTimeout,
+        @DefaultValue("100000") long maxClients,
+        @DefaultValue List<Policy> policies) {
+
+    /**
+     * Who a bucket belongs to.
+     */
+    public enum KeyType {
+        /** Client IP address. */
+        IP,
+        /** Authenticated username; anonymous requests fall back to the IP. */
+        USER
+    }
+
+    /**
+     * One token bucket per client: up to {@code capacity} requests in a burst,
+     * refilled at {@code refillPerSecond}.
+     * 
+     * @param name            label used in metrics and logs
+     * @param method          HTTP method to match, or null for any
+     * @param path            Spring path pattern, e.g. /api/students/**
+     * @param key             what identifies a client
+     * @param capacity        bucket size (burst)
+     * @param refillPerSecond sustained requests per second
+     */
+    public record Policy(
+            String name,
+            String method,
+            String path,
+            @DefaultValue("ip") KeyType key,
+            long capacity,
+            double refillPerSecond) {
+    }
+}
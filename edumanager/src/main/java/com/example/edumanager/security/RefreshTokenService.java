@@ -0,0 +1,119 @@
+package com.example.edumanager.security;
+
+import com.example.edumanager.entity.RefreshToken;
+import com.example.edumanager.repository.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Issues and rotates refresh tokens.
+ * 
+ * A refresh token is 256 random bits (base64url); the database keeps only
+ * its SHA-256 hash. Each use revokes the presented token and issues a new
+ * one in the same family. Rotation is a conditional UPDATE, so two
+ * concurrent refreshes with the same token cannot both succeed; the loser
+ * is treated as token reuse and the whole family is revoked.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    /**
+     * A freshly issued refresh token; the raw value is only ever held here.
+     */
+    public record Issued(String token, String username, Instant expiresAt) {
+    }
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration refreshTokenTtl;
+    private final SecureRandom random = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               @Value("${jwt.refresh-expiration-ms}") long refreshExpirationMs) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.refreshTokenTtl = Duration.ofMillis(refreshExpirationMs);
+    }
+
+    /**
+     * Start a new token family for a login.
+     */
+    public Issued issue(String username) {
+        return issue(username, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Exchange a refresh token for a new one.
+     * 
+     * @return the replacement token, or empty if the token is unknown, expired,
+     *         or was already used (in which case its family is revoked)
+     */
+    public Optional<Issued> rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHash(hash(rawToken)).orElse(null);
+        if (current == null || current.getExpiresAt().isBefore(Instant.now())) {
+            return Optional.empty();
+        }
+        if (refreshTokenRepository.revokeIfActive(current.getId()) == 0) {
+            int revoked = refreshTokenRepository.revokeFamily(current.getFamilyId());
+            logger.warn("Refresh token reuse for user '{}', revoked {} token(s) in its family",
+                    current.getUsername(), revoked);
+            return Optional.empty();
+        }
+        return Optional.of(issue(current.getUsername(), current.getFamilyId()));
+    }
+
+    /**
+     * Revoke the family of the given token (logout). Unknown tokens are ignored.
+     */
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+    /**
+     * Delete expired tokens; revoked ones are kept until then for reuse detection.
+     */
+    @Scheduled(fixedDelayString = "${jwt.refresh-cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(Instant.now());
+        if (deleted > 0) {
+            logger.debug("Deleted {} expired refresh token(s)", deleted);
+        }
+    }
+
+    private Issued issue(String username, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        Instant expiresAt = Instant.now().plus(refreshTokenTtl);
+        refreshTokenRepository.save(new RefreshToken(hash(rawToken), username, familyId, expiresAt));
+        return new Issued(rawToken, username, expiresAt);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(rawToken.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.edumanager.security;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * In-memory set of revoked access-token IDs (the "jti" claim).
+ * 
+ * Lookups go through a Bloom filter first: almost every token is not
+ * revoked, and for those the answer is a few bit reads with no hashing of
+ * the whole token and no locking. Only a filter hit consults the exact set,
+ * so false positives never reject a valid token.
+ * 
+ * Entries are kept until the token's own expiry. A Bloom filter cannot
+ * delete, so a scheduled rebuild drops expired IDs and re-creates the filter
+ * from the exact set. Revocations are per instance and not persisted; the
+ * short access-token lifetime (jwt.expiration-ms) bounds what a restart forgets.
+ */
+@Component
+public class RevokedTokenRegistry {
+
+    private final Map<String, Long> revokedUntil = new ConcurrentHashMap<>();
+    private final AtomicReference<BloomFilter> filter = new AtomicReference<>();
+    private final int expectedTokens;
+    private final double falsePositiveRate;
+    private final Counter falsePositives;
+
+    public RevokedTokenRegistry(@Value("${jwt.revocation.expected-tokens:100000}") int expectedTokens,
+                                @Value("${jwt.revocation.false-positive-rate:0.01}") double falsePositiveRate,
+                                MeterRegistry meterRegistry) {
+        this.expectedTokens = expectedTokens;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter.set(new BloomFilter(expectedTokens, falsePositiveRate));
+        Gauge.builder("auth.revoked.tokens", revokedUntil, Map::size)
+                .description("Revoked access tokens that have not expired yet")
+                .register(meterRegistry);
+        this.falsePositives = Counter.builder("auth.revoked.false-positives")
+                .description("Bloom filter hits for tokens that were not revoked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Revoke a token ID until the given expiry (epoch millis).
+     */
+    public void revoke(String jti, long expiresAtMs) {
+        revokedUntil.put(jti, expiresAtMs);
+        filter.get().add(jti);
+    }
+
+    /**
+     * @return true if the token ID was revoked and has not expired yet
+     */
+    public boolean isRevoked(String jti) {
+        if (!filter.get().mightContain(jti)) {
+            return false;
+        }
+        Long until = revokedUntil.get(jti);
+        if (until == null || until < System.currentTimeMillis()) {
+            falsePositives.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Drop expired IDs and rebuild the filter from what is left.
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.rebuild-interval-ms:600000}")
+    public void rebuild() {
+        long now = System.currentTimeMillis();
+        revokedUntil.values().removeIf(until -> until < now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedTokens, revokedUntil.size() * 2),
+                falsePositiveRate);
+        revokedUntil.keySet().forEach(rebuilt::add);
+        filter.set(rebuilt);
+        // Second pass: catches IDs revoked into the old filter while this one was built
+        revokedUntil.keySet().forEach(rebuilt::add);
+    }
+
+    /**
+     * Lock-free Bloom filter over strings using double hashing
+     * (Kirsch-Mitzenmacher) of a 64-bit FNV-1a hash.
+     */
+    static final class BloomFilter {
+
+        private final AtomicLongArray bits;
+        private final long bitCount;
+        private final int hashCount;
+
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            double ln2 = Math.log(2);
+            long m = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+            this.bitCount = Math.max(64, (m + 63) / 64 * 64);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * ln2));
+            this.bits = new AtomicLongArray((int) (bitCount / 64));
+        }
+
+        void add(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = bits.get(word);
+                } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+            }
+        }
+
+        boolean mightContain(String value) {
+            long h1 = hash(value);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            for (int i = 0; i < hashCount; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private static long hash(String value) {
+            long h = 0xcbf29ce484222325L;
+            for (int i = 0; i < value.length(); i++) {
+                h ^= value.charAt(i);
+                h *= 0x100000001b3L;
+            }
+            return mix(h);
+        }
+
+        private static long mix(long z) {
+            z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+            z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return z ^ (z >>> 33);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.edumanager.security;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -10,6 +12,7 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -31,37 +34,50 @@ import java.util.List;
  * - Password encoding
  * - CORS settings for frontend integration
  * - Session management (stateless for JWT)
+ * - Per-client rate limits (RateLimitFilter, "rate-limit" properties)
  */
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)  // Enables @PreAuthorize annotations
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
     private final JwtAuthFilter jwtAuthFilter;
+    private final RateLimitFilter rateLimitFilter;
     private final UserDetailsService userDetailsService;
+    private final UserDetailsPasswordService userDetailsPasswordService;
 
-    public SecurityConfig(JwtAuthFilter jwtAuthFilter, UserDetailsService userDetailsService) {
+    public SecurityConfig(JwtAuthFilter jwtAuthFilter, RateLimitFilter rateLimitFilter,
+                          UserDetailsService userDetailsService,
+                          UserDetailsPasswordService userDetailsPasswordService) {
         this.jwtAuthFilter = jwtAuthFilter;
+        this.rateLimitFilter = rateLimitFilter;
         this.userDetailsService = userDetailsService;
+        this.userDetailsPasswordService = userDetailsPasswordService;
     }
 
     /**
      * Password encoder bean.
      * BCrypt is the recommended algorithm for password hashing.
+     * Raising auth.bcrypt.strength needs no migration: older hashes are
+     * upgraded on the user's next successful login.
      */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 
     /**
      * Authentication provider that uses our custom UserDetailsService.
+     * The password service rehashes stored passwords whose BCrypt
+     * strength is below the current setting.
      */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setPasswordEncoder(passwordEncoder);
+        authProvider.setUserDetailsPasswordService(userDetailsPasswordService);
         return authProvider;
     }
 
@@ -84,7 +100,8 @@ public class SecurityConfig {
      * - Role-based access control
      */
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http,
+                                           DaoAuthenticationProvider authenticationProvider) throws Exception {
         http
             // Disable CSRF (not needed for stateless JWT auth)
             .csrf(csrf -> csrf.disable())
@@ -104,13 +121,26 @@ public class SecurityConfig {
                 .requestMatchers("/h2-console/**").permitAll()  // For H2 dev console
                 .requestMatchers("/error").permitAll()
                 
+                // Actuator: health is public, metrics/caches are for admins
+                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
+                
                 // Student endpoints
-                // GET requests are public (anyone can view students)
+                // Import jobs and their error reports are only visible to their owner (or an admin)
+                .requestMatchers(HttpMethod.GET, "/api/students/import/**").authenticated()
+
+                // Other GET requests are public (anyone can view students)
                 .requestMatchers(HttpMethod.GET, "/api/students/**").permitAll()
+                // ...and so is looking up many at once
+                .requestMatchers(HttpMethod.POST, "/api/students/batch-get").permitAll()
                 
-                // POST/PUT require authentication (any logged-in user)
+                // Batch deletes are ADMIN-only like single deletes
+                .requestMatchers(HttpMethod.POST, "/api/students/batch-delete").hasRole("ADMIN")
+                
+                // POST/PUT/PATCH require authentication (any logged-in user)
                 .requestMatchers(HttpMethod.POST, "/api/students/**").authenticated()
                 .requestMatchers(HttpMethod.PUT, "/api/students/**").authenticated()
+                .requestMatchers(HttpMethod.PATCH, "/api/students/**").authenticated()
                 
                 // DELETE requires ADMIN role
                 .requestMatchers(HttpMethod.DELETE, "/api/students/**").hasRole("ADMIN")
@@ -120,11 +150,14 @@ public class SecurityConfig {
             )
             
             // Set authentication provider
-            .authenticationProvider(authenticationProvider())
+            .authenticationProvider(authenticationProvider)
             
             // Add JWT filter before the standard authentication filter
             .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class)
             
+            // Rate limit per IP / per user, once the JWT user is known
+            .addFilterAfter(rateLimitFilter, JwtAuthFilter.class)
+            
             // Allow H2 console frames (for development)
             .headers(headers -> headers.frameOptions(frame -> frame.sameOrigin()));
 
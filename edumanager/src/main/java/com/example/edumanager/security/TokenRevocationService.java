@@ -0,0 +1,80 @@
+package com.example.edumanager.security;
+
+import com.example.edumanager.config.ReadReplicaRoutingDataSource;
+import com.example.edumanager.dto.UserTokenState;
+import com.example.edumanager.event.UserChangedEvent;
+import com.example.edumanager.repository.UserRepository;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decides whether a signed token is still honoured for its user.
+ * 
+ * A token is current when the user exists, is enabled, and the token's
+ * version claim equals the user's tokenVersion (bumped on role changes and
+ * on disable). The (tokenVersion, enabled) pair is cached per username, so
+ * the check is a map lookup; the cache is evicted on UserChangedEvent after
+ * commit. Each of those events also bumps a generation counter, and a miss
+ * only fills the cache if no user change committed while it loaded, so a
+ * state read just before a change cannot be put back after its eviction.
+ * A miss is loaded in a read-write transaction, which the routing DataSource
+ * sends to the primary (see ReadReplicaRoutingDataSource), so what is cached
+ * is never a lagging replica's state; should the caller's own read-only
+ * transaction have put it on a replica anyway, the state is used but not cached.
+ * Changes made by other application instances are picked up when the entry
+ * expires (spring.cache.caffeine.spec).
+ */
+@Service
+public class TokenRevocationService {
+
+    public static final String USER_TOKEN_STATES = "userTokenStates";
+
+    private final UserRepository userRepository;
+    private final Cache tokenStates;
+    private final AtomicLong generation = new AtomicLong();
+    private final TransactionTemplate primaryTx;
+
+    public TokenRevocationService(UserRepository userRepository, CacheManager cacheManager,
+                                  PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.primaryTx = new TransactionTemplate(transactionManager);
+        this.tokenStates = Objects.requireNonNull(cacheManager.getCache(USER_TOKEN_STATES),
+                "Cache '" + USER_TOKEN_STATES + "' is not configured");
+    }
+
+    /**
+     * @return true if a token carrying this version may still be used by the user
+     */
+    public boolean isTokenCurrent(String username, int tokenVersion) {
+        UserTokenState state = tokenStates.get(username, UserTokenState.class);
+        if (state == null) {
+            // Read before loading: a change committing meanwhile makes the result unfit to cache
+            long loadGeneration = generation.get();
+            long replicaMark = ReadReplicaRoutingDataSource.replicaReadMark();
+            state = primaryTx.execute(status -> userRepository.findTokenStateByUsername(username))
+                    .orElse(null);
+            if (state == null) {
+                return false;
+            }
+            if (generation.get() == loadGeneration
+                    && !ReadReplicaRoutingDataSource.readFromReplicaSince(replicaMark)) {
+                tokenStates.put(username, state);
+            }
+        }
+        return state.enabled() && state.tokenVersion() == tokenVersion;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        // Bumped before evicting, so a load that read the old state can no longer fill the cache
+        generation.incrementAndGet();
+        tokenStates.evict(event.username());
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.edumanager.service;
+
+import com.example.edumanager.config.ReadReplicaRoutingDataSource;
+import com.example.edumanager.entity.Student;
+import com.example.edumanager.event.StudentChangedEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Read-through cache for single-student lookups.
+ * 
+ * Two caches are used:
+ * - "students":          id -> Student
+ * - "studentIdsByEmail": email -> id (resolved through "students")
+ * 
+ * Storing only the id per email means a student is cached once, and an
+ * email lookup is re-validated against the cached student, so a changed
+ * or deleted email can never be served from a stale entry.
+ * 
+ * Entries are evicted after commit from StudentChangedEvents. Each of those
+ * also bumps a generation counter (as in StudentSearchCache): a load only
+ * fills the cache if no write committed while it ran, so a row read just
+ * before a write cannot be put back after the write's eviction. Loads read
+ * from a (possibly lagging) replica are returned but never cached.
+ * 
+ * The cache holds its own copies of the students, and every hit returns a
+ * fresh copy, so callers never share (or change) a cached instance.
+ * 
+ * Size, TTL and whether caching is enabled at all come from spring.cache.*
+ * (with spring.cache.type=none every lookup goes to the database).
+ */
+@Component
+public class StudentCache {
+
+    public static final String STUDENTS = "students";
+    public static final String STUDENT_IDS_BY_EMAIL = "studentIdsByEmail";
+
+    private final Cache byId;
+    private final Cache idByEmail;
+    private final AtomicLong generation = new AtomicLong();
+
+    public StudentCache(CacheManager cacheManager) {
+        this.byId = Objects.requireNonNull(cacheManager.getCache(STUDENTS),
+                "Cache '" + STUDENTS + "' is not configured");
+        this.idByEmail = Objects.requireNonNull(cacheManager.getCache(STUDENT_IDS_BY_EMAIL),
+                "Cache '" + STUDENT_IDS_BY_EMAIL + "' is not configured");
+    }
+
+    /**
+     * Return the cached student or load and cache it. Missing students are not cached.
+     */
+    public Optional<Student> getById(Long id, Function<Long, Optional<Student>> loader) {
+        Student cached = byId.get(id, Student.class);
+        if (cached != null) {
+            return Optional.of(copyOf(cached));
+        }
+        // Read before loading: a write committing meanwhile makes the result unfit to cache
+        long loadGeneration = generation.get();
+        long replicaMark = ReadReplicaRoutingDataSource.replicaReadMark();
+        Optional<Student> loaded = loader.apply(id);
+        loaded.ifPresent(student -> {
+            if (isCacheable(loadGeneration, replicaMark)) {
+                byId.put(id, copyOf(student));
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Return the students with these ids: cached ones directly, all others with
+     * a single call to the loader (whose results are cached). Ids that do not
+     * exist are absent from the result.
+     */
+    public Map<Long, Student> getAllById(Collection<Long> ids,
+                                         Function<Collection<Long>, List<Student>> loader) {
+        Map<Long, Student> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            Student cached = byId.get(id, Student.class);
+            if (cached != null) {
+                found.put(id, copyOf(cached));
+            } else {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long loadGeneration = generation.get();
+            long replicaMark = ReadReplicaRoutingDataSource.replicaReadMark();
+            List<Student> loaded = loader.apply(missing);
+            boolean cacheable = isCacheable(loadGeneration, replicaMark);
+            for (Student student : loaded) {
+                if (cacheable) {
+                    byId.put(student.getId(), copyOf(student));
+                }
+                found.put(student.getId(), student);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Return (a copy of) the cached student without loading it, or null.
+     */
+    public Student peek(Long id) {
+        Student cached = byId.get(id, Student.class);
+        return cached != null ? copyOf(cached) : null;
+    }
+
+    /**
+     * Return the student with this email, going through the id cache.
+     */
+    public Optional<Student> getByEmail(String email,
+                                        Function<Long, Optional<Student>> idLoader,
+                                        Function<String, Optional<Student>> emailLoader) {
+        Long id = idByEmail.get(email, Long.class);
+        if (id != null) {
+            Optional<Student> student = getById(id, idLoader);
+            if (student.isPresent() && email.equals(student.get().getEmail())) {
+                return student;
+            }
+            idByEmail.evict(email);
+        }
+
+        long loadGeneration = generation.get();
+        long replicaMark = ReadReplicaRoutingDataSource.replicaReadMark();
+        Optional<Student> loaded = emailLoader.apply(email);
+        loaded.ifPresent(student -> {
+            if (isCacheable(loadGeneration, replicaMark)) {
+                byId.put(student.getId(), copyOf(student));
+                idByEmail.put(email, student.getId());
+            }
+        });
+        return loaded;
+    }
+
+    /**
+     * Drop entries for a student once its change has been committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        // Bumped before evicting, so a load that read the old row can no longer fill the cache
+        generation.incrementAndGet();
+        byId.evict(event.studentId());
+        if (event.student() != null) {
+            idByEmail.evict(event.student().getEmail());
+        }
+    }
+
+    // No write committed since the load started, and the load did not come from a replica
+    private boolean isCacheable(long loadGeneration, long replicaMark) {
+        return generation.get() == loadGeneration
+                && !ReadReplicaRoutingDataSource.readFromReplicaSince(replicaMark);
+    }
+
+    // Detached copy, so cached state is never shared with (or modified by) a caller
+    static Student copyOf(Student student) {
+        Student copy = new Student(student.getName(), student.getEmail(), student.getPhone());
+        copy.setId(student.getId());
+        copy.setVersion(student.getVersion());
+        copy.setUpdatedAt(student.getUpdatedAt());
+        return copy;
+    }
+}
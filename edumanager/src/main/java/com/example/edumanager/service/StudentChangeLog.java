@@ -0,0 +1,204 @@
+package com.example.edumanager.service;
+
+import com.example.edumanager.dto.StudentChangeFeed;
+import com.example.edumanager.entity.StudentChange;
+import com.example.edumanager.entity.StudentChangeLogHead;
+import com.example.edumanager.event.StudentChangedEvent;
+import com.example.edumanager.exception.BadRequestException;
+import com.example.edumanager.exception.ChangeCursorExpiredException;
+import com.example.edumanager.repository.StudentChangeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Ordered log of student changes, so consumers can sync deltas instead of
+ * re-reading the whole roster (GET /api/students/changes).
+ *
+ * Every StudentChangedEvent is appended to student_changes by the transaction
+ * that published it, right before it commits: a change and its log entry
+ * commit or roll back together. Seq values are taken from the locked
+ * StudentChangeLogHead row, so they are gap-free and in commit order, and
+ * "everything after seq N" is a plain primary key range scan whose cost
+ * depends on the number of changes, not on the size of the table.
+ *
+ * Compaction runs every student-changes.compaction-interval-ms:
+ * - entries superseded by a later entry for the same student are dropped;
+ *   a reader behind them still gets the later one, so nothing is lost
+ * - tombstones older than student-changes.tombstone-retention are dropped and
+ *   the head remembers the highest one; older cursors get 410 and must reload
+ * Both resume from watermarks on the head (compactedThrough, purgedThrough),
+ * so a run only looks at the entries logged since the previous one.
+ */
+@Service
+public class StudentChangeLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentChangeLog.class);
+
+    /** Entries returned when the client does not ask for a page size. */
+    public static final int DEFAULT_LIMIT = 100;
+
+    /** Upper bound on entries per request. */
+    public static final int MAX_LIMIT = 1000;
+
+    // Seq range compacted per transaction, so no single DELETE holds its locks for long
+    private static final int COMPACTION_WINDOW = 10_000;
+
+    private final StudentChangeRepository changeRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration tombstoneRetention;
+
+    public StudentChangeLog(StudentChangeRepository changeRepository,
+                            EntityManager entityManager,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${student-changes.tombstone-retention:7d}") Duration tombstoneRetention) {
+        this.changeRepository = changeRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    @PostConstruct
+    void createHead() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (entityManager.find(StudentChangeLogHead.class, StudentChangeLogHead.ID) == null) {
+                    entityManager.persist(new StudentChangeLogHead(StudentChangeLogHead.ID));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it at the same time
+        }
+    }
+
+    /**
+     * Append the change to the log of the transaction that made it.
+     * Runs just before commit, so the head row stays locked only for the commit itself.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void onStudentChanged(StudentChangedEvent event) {
+        // Further events of this transaction find the head already locked in the persistence context
+        StudentChangeLogHead head = entityManager.find(StudentChangeLogHead.class,
+                StudentChangeLogHead.ID, LockModeType.PESSIMISTIC_WRITE);
+        if (head == null) {
+            throw new IllegalStateException("Student change log head row is missing");
+        }
+        head.setLastSeq(head.getLastSeq() + 1);
+        entityManager.persist(new StudentChange(head.getLastSeq(), event, Instant.now()));
+    }
+
+    /**
+     * Changes after a cursor.
+     *
+     * Without a cursor nothing is returned, only the current position: take it
+     * first, then load all students, then sync from it (re-applying a change
+     * already seen is harmless, entries carry the student's version).
+     *
+     * @param since cursor from a previous response, or null for the current position
+     * @param limit requested page size (clamped to 1..MAX_LIMIT)
+     * @throws ChangeCursorExpiredException if tombstones after the cursor have been compacted away
+     */
+    @Transactional(readOnly = true)
+    public StudentChangeFeed changesSince(Long since, int limit) {
+        if (since == null) {
+            return new StudentChangeFeed(List.of(), currentSeq(), false);
+        }
+        if (since < 0) {
+            throw new BadRequestException("since must not be negative");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        // Fetch one extra row to find out whether more are waiting
+        List<StudentChange> rows = changeRepository.findAfter(since, Limit.of(pageSize + 1));
+        // Checked after reading the rows, so a purge that commits in between is still noticed
+        long purgedThrough = head().getPurgedThrough();
+        if (since < purgedThrough) {
+            throw new ChangeCursorExpiredException("Cursor " + since + " is older than the kept change "
+                    + "history (" + purgedThrough + "); reload all students and sync from a new cursor");
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+        long cursor = rows.isEmpty() ? since : rows.get(rows.size() - 1).getSeq();
+        return new StudentChangeFeed(List.copyOf(rows), cursor, hasMore);
+    }
+
+    /**
+     * Seq of the latest committed change (0 if there has been none).
+     */
+    @Transactional(readOnly = true)
+    public long currentSeq() {
+        return head().getLastSeq();
+    }
+
+    /**
+     * Drop superseded entries and expired tombstones.
+     */
+    @Scheduled(fixedDelayString = "${student-changes.compaction-interval-ms:300000}")
+    public void compact() {
+        // Every seq up to lastSeq is committed: seqs are taken in commit order under the head lock
+        StudentChangeLogHead start = transactionTemplate.execute(status -> head());
+        long last = start.getLastSeq();
+        int superseded = 0;
+        for (long from = start.getCompactedThrough(); from < last; from += COMPACTION_WINDOW) {
+            long windowFrom = from;
+            long windowTo = Math.min(from + COMPACTION_WINDOW, last);
+            superseded += transactionTemplate.execute(status -> {
+                int deleted = changeRepository.deleteSuperseded(windowFrom, windowTo);
+                StudentChangeLogHead head = lockHead();
+                head.setCompactedThrough(Math.max(head.getCompactedThrough(), windowTo));
+                return deleted;
+            });
+        }
+
+        long purgedThrough = start.getPurgedThrough();
+        Long purgeThrough = changeRepository.findLastSeqBefore(StudentChangedEvent.Type.DELETED,
+                purgedThrough, Instant.now().minus(tombstoneRetention));
+        int tombstones = 0;
+        if (purgeThrough != null) {
+            tombstones = transactionTemplate.execute(status -> {
+                int deleted = changeRepository.deleteThrough(StudentChangedEvent.Type.DELETED,
+                        purgedThrough, purgeThrough);
+                StudentChangeLogHead head = lockHead();
+                head.setPurgedThrough(Math.max(head.getPurgedThrough(), purgeThrough));
+                return deleted;
+            });
+        }
+        if (superseded > 0 || tombstones > 0) {
+            logger.debug("Compacted student change log: {} superseded entries, {} tombstones",
+                    superseded, tombstones);
+        }
+    }
+
+    // Locked last in a compaction transaction, so writers wait only for this update and the commit
+    private StudentChangeLogHead lockHead() {
+        return entityManager.find(StudentChangeLogHead.class, StudentChangeLogHead.ID,
+                LockModeType.PESSIMISTIC_WRITE);
+    }
+
+    private StudentChangeLogHead head() {
+        StudentChangeLogHead head = entityManager.find(StudentChangeLogHead.class, StudentChangeLogHead.ID);
+        if (head == null) {
+            throw new IllegalStateException("Student change log head row is missing");
+        }
+        return head;
+    }
+}
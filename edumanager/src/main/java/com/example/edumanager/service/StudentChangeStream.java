@@ -0,0 +1,550 @@
+package com.example.edumanager.service;
+
+import com.example.edumanager.dto.StudentChangeFeed;
+import com.example.edumanager.entity.StudentChange;
+import com.example.edumanager.event.StudentChangedEvent;
+import com.example.edumanager.exception.ChangeCursorExpiredException;
+import com.example.edumanager.exception.ServiceBusyException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes student changes to browsers as Server-Sent Events (GET /api/students/stream).
+ *
+ * The stream tails the change log (StudentChangeLog): after each local commit,
+ * and every student-stream.poll-interval for writes made by other instances,
+ * new entries are read once and appended to an in-memory ring buffer of the
+ * last student-stream.buffer-size changes. Event ids are change log seqs, so
+ * a reconnecting EventSource sends its Last-Event-ID and gets everything after
+ * it from the buffer; an id older than the buffer, or newer than the change
+ * log itself (e.g. from before the database was recreated), gets a "reset"
+ * event instead, telling the client to reload and carry on from the current
+ * position.
+ *
+ * Subscribers hold no queue and no thread of their own: each keeps only the
+ * seq it has sent up to and reads from the shared buffer at its own pace. An
+ * idle subscriber costs an async request and a few objects. When there is
+ * something to send, a drain task on one of student-stream.send-threads
+ * writes it. Writes use Servlet non-blocking output and never wait for a
+ * client: when a client stops reading, its drain gives the thread back and
+ * the container calls onWritePossible once the client has caught up. So a
+ * stalled client never holds a send thread, and disconnecting it completes
+ * its request at once.
+ *
+ * Backpressure: new changes are added at most half a buffer at a time, and
+ * only once every subscriber has sent the entries they would overwrite. A
+ * subscriber that has not caught up within student-stream.slow-consumer-timeout
+ * is disconnected, so one stalled client holds up the others for at most that
+ * long; its browser reconnects and resumes, or gets a "reset" event. A stream
+ * whose client has taken no data for student-stream.write-timeout is
+ * disconnected at the next heartbeat, even when nothing new is waiting.
+ */
+@Service
+@EnableConfigurationProperties(StudentStreamProperties.class)
+public class StudentChangeStream implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentChangeStream.class);
+
+    // Changes written per buffer read by one drain task
+    private static final int DRAIN_BATCH = 100;
+
+    // How often the reader checks whether lagging subscribers have caught up
+    private static final long AWAIT_POLL_MILLIS = 10;
+
+    private static final byte[] KEEPALIVE = ":keepalive\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final StudentChangeLog changeLog;
+    private final StudentStreamProperties properties;
+    private final ObjectMapper objectMapper;
+    private final ChangeBuffer buffer;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor;
+    private final ExecutorService reader;
+    private final AtomicBoolean reading = new AtomicBoolean();
+    private volatile boolean readAgain;
+    private final Counter evictions;
+    private final List<ScheduledFuture<?>> scheduledTasks;
+
+    public StudentChangeStream(StudentChangeLog changeLog,
+                               StudentStreamProperties properties,
+                               TaskScheduler taskScheduler,
+                               MeterRegistry meterRegistry,
+                               ObjectMapper objectMapper) {
+        this.changeLog = changeLog;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.buffer = new ChangeBuffer(Math.max(1, properties.bufferSize()), changeLog.currentSeq());
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.sendThreads()),
+                namedThreads("student-stream-"));
+        this.reader = Executors.newSingleThreadExecutor(namedThreads("student-stream-reader-"));
+        this.evictions = Counter.builder("students.stream.evictions")
+                .description("Change stream subscribers disconnected as slow consumers")
+                .register(meterRegistry);
+        Gauge.builder("students.stream.subscribers", subscribers, Set::size)
+                .description("Open student change streams")
+                .register(meterRegistry);
+        this.scheduledTasks = List.of(
+                taskScheduler.scheduleWithFixedDelay(this::requestRead, properties.pollInterval()),
+                taskScheduler.scheduleWithFixedDelay(this::heartbeat, properties.heartbeatInterval()));
+    }
+
+    /**
+     * Open a stream of changes after the given seq on this request, which is put
+     * into async mode; the events are written from the send threads.
+     *
+     * @param lastEventId seq of the last change the client has, or null to start from now
+     * @throws ServiceBusyException if student-stream.max-subscribers streams are already open
+     */
+    public void subscribe(Long lastEventId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (subscribers.size() >= properties.maxSubscribers()) {
+            throw new ServiceBusyException("Too many open change streams, try again later", 5);
+        }
+        // Read outside the buffer lock; no client can have seen a seq above it
+        long committedSeq = lastEventId != null ? changeLog.currentSeq() : 0;
+
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        AsyncContext async = request.startAsync(request, response);
+        async.setTimeout(properties.timeout().toMillis());
+        Subscriber subscriber = new Subscriber(async, response.getOutputStream());
+        async.addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                subscribers.remove(subscriber);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                close(subscriber);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                close(subscriber);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+        // The container calls onWritePossible once this request thread is done, which starts the first drain
+        subscriber.output.setWriteListener(new WriteListener() {
+            @Override
+            public void onWritePossible() {
+                subscriber.writePossible = true;
+                schedule(subscriber);
+            }
+
+            @Override
+            public void onError(Throwable error) {
+                close(subscriber);
+            }
+        });
+        synchronized (buffer) {
+            if (lastEventId == null) {
+                subscriber.lastSentSeq = buffer.lastSeq;
+            } else if (lastEventId < buffer.evictedThrough || lastEventId > committedSeq) {
+                // Changes after lastEventId are no longer buffered, or the id is not from this log
+                subscriber.lastSentSeq = buffer.lastSeq;
+                subscriber.resetDue = true;
+            } else {
+                // May be ahead of this instance's buffer (sent by another instance); that only skips ahead
+                subscriber.lastSentSeq = lastEventId;
+            }
+            // Added under the same lock as its position is set: a read that adds changes later
+            // already waits for this subscriber before overwriting what it still needs
+            subscribers.add(subscriber);
+        }
+    }
+
+    /**
+     * Read the change log as soon as a student change has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onStudentChanged(StudentChangedEvent event) {
+        requestRead();
+    }
+
+    @Override
+    public void destroy() {
+        scheduledTasks.forEach(task -> task.cancel(false));
+        List.copyOf(subscribers).forEach(this::close);
+        executor.shutdownNow();
+        reader.shutdownNow();
+    }
+
+    // At most one read of the change log at a time; requests during a read cause one more read.
+    // Reads have their own thread, so subscribers blocking the send threads cannot hold them up.
+    private void requestRead() {
+        readAgain = true;
+        if (reading.compareAndSet(false, true)) {
+            reader.execute(this::readLoop);
+        }
+    }
+
+    private void readLoop() {
+        do {
+            while (readAgain) {
+                readAgain = false;
+                try {
+                    readNewChanges();
+                } catch (RuntimeException e) {
+                    logger.warn("Reading the student change log failed: {}", e.getMessage());
+                }
+            }
+            reading.set(false);
+        } while (readAgain && reading.compareAndSet(false, true));
+    }
+
+    private void readNewChanges() {
+        // Half a buffer per read, so a page never overwrites the previous one
+        int pageSize = Math.min(StudentChangeLog.MAX_LIMIT, Math.max(1, properties.bufferSize() / 2));
+        StudentChangeFeed feed;
+        do {
+            try {
+                feed = changeLog.changesSince(buffer.lastSeq, pageSize);
+            } catch (ChangeCursorExpiredException e) {
+                // Only after being stopped for longer than the tombstone retention
+                long current = changeLog.currentSeq();
+                logger.warn("Change stream fell behind the kept history, skipping to {}", current);
+                synchronized (buffer) {
+                    buffer.skipTo(current);
+                }
+                return;
+            }
+            if (feed.changes().isEmpty()) {
+                return;
+            }
+            long evictedThrough;
+            synchronized (buffer) {
+                evictedThrough = buffer.evictedThroughAfterAdding(feed.changes().size());
+            }
+            boolean added = false;
+            while (!added) {
+                if (!awaitSubscribers(evictedThrough)) {
+                    return;
+                }
+                synchronized (buffer) {
+                    // Checked again under the lock: a subscriber that joined during the wait may still be behind
+                    added = subscribers.stream().allMatch(subscriber -> subscriber.lastSentSeq >= evictedThrough);
+                    if (added) {
+                        feed.changes().forEach(buffer::add);
+                    }
+                }
+            }
+            subscribers.forEach(this::schedule);
+        } while (feed.hasMore());
+    }
+
+    // Wait until every subscriber has sent the changes up to the given seq, evicting those that take too long
+    private boolean awaitSubscribers(long seq) {
+        long deadline = System.nanoTime() + properties.slowConsumerTimeout().toNanos();
+        for (Subscriber subscriber : subscribers) {
+            while (subscriber.lastSentSeq < seq && subscribers.contains(subscriber)) {
+                if (System.nanoTime() - deadline >= 0) {
+                    // Typically stuck in a write to a client that stopped reading
+                    evict(subscriber);
+                    break;
+                }
+                schedule(subscriber);
+                try {
+                    Thread.sleep(AWAIT_POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private void heartbeat() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.stalled && now - subscriber.stalledSince >= properties.writeTimeout().toNanos()) {
+                // Has not taken any data for write-timeout: gone, or not reading
+                evict(subscriber);
+                continue;
+            }
+            subscriber.heartbeatDue = true;
+            schedule(subscriber);
+        }
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.draining.compareAndSet(false, true)) {
+            executor.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Send everything after the subscriber's position; only one drain per subscriber runs at a time.
+    // Never blocks on the client: it stops when the output is not ready and onWritePossible resumes it.
+    private void drain(Subscriber subscriber) {
+        try {
+            while (true) {
+                if (!subscribers.contains(subscriber)) {
+                    // Evicted or failed while this drain was running
+                    close(subscriber);
+                    return;
+                }
+                subscriber.writePossible = false;
+                if (!subscriber.isReady()) {
+                    if (!subscriber.stalled) {
+                        subscriber.stalledSince = System.nanoTime();
+                        subscriber.stalled = true;
+                    }
+                    subscriber.draining.set(false);
+                    // onWritePossible may have come before the flag was released
+                    if (!subscriber.writePossible || !subscriber.draining.compareAndSet(false, true)) {
+                        return;
+                    }
+                    continue;
+                }
+                subscriber.stalled = false;
+                if (subscriber.flushDue) {
+                    subscriber.flush();
+                    continue;
+                }
+                if (subscriber.resetDue) {
+                    subscriber.resetDue = false;
+                    subscriber.write(event(subscriber.lastSentSeq, "reset", Map.of("cursor", subscriber.lastSentSeq)));
+                    continue;
+                }
+                List<StudentChange> batch;
+                synchronized (buffer) {
+                    batch = buffer.after(subscriber.lastSentSeq, DRAIN_BATCH);
+                }
+                if (batch == null) {
+                    // Overtaken by the ring buffer
+                    evict(subscriber);
+                    continue;
+                }
+                if (!batch.isEmpty()) {
+                    StringBuilder events = new StringBuilder();
+                    for (StudentChange change : batch) {
+                        events.append(event(change.getSeq(), "change", change));
+                    }
+                    subscriber.write(events.toString());
+                    subscriber.lastSentSeq = batch.get(batch.size() - 1).getSeq();
+                    subscriber.heartbeatDue = false;
+                    continue;
+                }
+                if (subscriber.heartbeatDue) {
+                    subscriber.heartbeatDue = false;
+                    subscriber.write(KEEPALIVE);
+                    continue;
+                }
+                subscriber.draining.set(false);
+                // A change or heartbeat may have been signalled after the checks above
+                if ((buffer.lastSeq <= subscriber.lastSentSeq && !subscriber.heartbeatDue)
+                        || !subscriber.draining.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client gone or stream already completed
+            close(subscriber);
+        }
+    }
+
+    private void evict(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            evictions.increment();
+            logger.debug("Disconnecting change stream subscriber stalled at seq {}", subscriber.lastSentSeq);
+            // Writes never block, so this waits at most for one write in progress
+            close(subscriber);
+        }
+    }
+
+    private void close(Subscriber subscriber) {
+        subscribers.remove(subscriber);
+        subscriber.complete();
+    }
+
+    // One event in the text/event-stream format
+    private String event(long id, String name, Object data) throws IOException {
+        return "id:" + id + "\nevent:" + name + "\ndata:" + objectMapper.writeValueAsString(data) + "\n\n";
+    }
+
+    private static ThreadFactory namedThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One open stream. Its output is only used under its own monitor, so completing
+     * the request (eviction, timeout) never races with a write.
+     */
+    private static final class Subscriber {
+        final AsyncContext async;
+        final ServletOutputStream output;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile long lastSentSeq;
+        volatile boolean heartbeatDue;
+        volatile boolean resetDue;
+        // Set by onWritePossible, so a drain that just found the output not ready notices it
+        volatile boolean writePossible;
+        // Whether the output has not been ready since stalledSince (System.nanoTime())
+        volatile boolean stalled;
+        volatile long stalledSince;
+        // Written data may still sit in the container's buffer
+        volatile boolean flushDue;
+        private boolean completed;
+
+        Subscriber(AsyncContext async, ServletOutputStream output) {
+            this.async = async;
+            this.output = output;
+        }
+
+        // False once completed, or while the client has not taken what was written so far
+        synchronized boolean isReady() {
+            return !completed && output.isReady();
+        }
+
+        // Only after isReady(); flushed now if the client can take more, otherwise by the next drain
+        synchronized void write(String events) throws IOException {
+            write(events.getBytes(StandardCharsets.UTF_8));
+        }
+
+        synchronized void write(byte[] bytes) throws IOException {
+            if (completed) {
+                throw new IllegalStateException("Stream already completed");
+            }
+            output.write(bytes);
+            flushDue = true;
+            if (output.isReady()) {
+                flush();
+            }
+        }
+
+        synchronized void flush() throws IOException {
+            if (!completed) {
+                output.flush();
+                flushDue = false;
+            }
+        }
+
+        synchronized void complete() {
+            if (!completed) {
+                completed = true;
+                try {
+                    async.complete();
+                } catch (IllegalStateException e) {
+                    // Already completed by the container
+                }
+            }
+        }
+    }
+
+    /**
+     * The last changes in seq order, overwriting the oldest. Guarded by its own monitor.
+     */
+    private static final class ChangeBuffer {
+        private final StudentChange[] entries;
+        private int first;
+        private int size;
+        // Seq of the newest change seen, and of the newest change no longer held
+        volatile long lastSeq;
+        volatile long evictedThrough;
+
+        ChangeBuffer(int capacity, long startSeq) {
+            this.entries = new StudentChange[capacity];
+            this.lastSeq = startSeq;
+            this.evictedThrough = startSeq;
+        }
+
+        void add(StudentChange change) {
+            if (size == entries.length) {
+                evictedThrough = entries[first].getSeq();
+                first = (first + 1) % entries.length;
+                size--;
+            }
+            entries[(first + size) % entries.length] = change;
+            size++;
+            lastSeq = change.getSeq();
+        }
+
+        /**
+         * What evictedThrough would be after adding count changes (at most the capacity).
+         */
+        long evictedThroughAfterAdding(int count) {
+            int overflow = size + count - entries.length;
+            return overflow <= 0 ? evictedThrough : get(overflow - 1).getSeq();
+        }
+
+        void skipTo(long seq) {
+            first = 0;
+            size = 0;
+            lastSeq = seq;
+            evictedThrough = seq;
+        }
+
+        /**
+         * Up to max changes with a seq above the given one, or null if some of them are gone.
+         */
+        List<StudentChange> after(long seq, int max) {
+            if (seq < evictedThrough) {
+                return null;
+            }
+            // Binary search for the first entry with a higher seq (seqs ascend, with gaps)
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (get(mid).getSeq() <= seq) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            List<StudentChange> result = new ArrayList<>(Math.min(max, size - low));
+            for (int i = low; i < size && result.size() < max; i++) {
+                result.add(get(i));
+            }
+            return result;
+        }
+
+        private StudentChange get(int index) {
+            return entries[(first + index) % entries.length];
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.edumanager.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming CSV reader (RFC 4180), one record at a time.
+ *
+ * Quoted fields may contain separators, doubled quotes and line breaks;
+ * lines may end in LF or CRLF and a leading byte order mark is skipped.
+ * Records longer than MAX_RECORD_CHARS are rejected, so an unterminated
+ * quote cannot pull the rest of the file into memory.
+ */
+class StudentCsvReader {
+
+    /** Longest record accepted, in characters. */
+    static final int MAX_RECORD_CHARS = 64 * 1024;
+
+    private final BufferedReader in;
+    private boolean started;
+
+    StudentCsvReader(Reader reader) {
+        this.in = new BufferedReader(reader, 64 * 1024);
+    }
+
+    /**
+     * Read the next record.
+     *
+     * @return the record's fields, or null at end of input
+     * @throws IOException if the input is not valid CSV (the rest cannot be read reliably)
+     */
+    List<String> readRecord() throws IOException {
+        if (!started) {
+            started = true;
+            in.mark(1);
+            if (in.read() != '\uFEFF') {
+                in.reset();
+            }
+        }
+
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean fieldStart = true;
+        int length = 0;
+
+        while (true) {
+            int c = in.read();
+            if (c == -1) {
+                if (quoted) {
+                    throw new IOException("Unterminated quoted field at end of input");
+                }
+                if (length == 0) {
+                    return null;
+                }
+                fields.add(field.toString());
+                return fields;
+            }
+            if (++length > MAX_RECORD_CHARS) {
+                throw new IOException("Record longer than " + MAX_RECORD_CHARS
+                        + " characters (unterminated quote?)");
+            }
+
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    if (in.read() == '"') {
+                        field.append('"');
+                    } else {
+                        in.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && fieldStart) {
+                quoted = true;
+                fieldStart = false;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+                fieldStart = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    in.mark(1);
+                    if (in.read() != '\n') {
+                        in.reset();
+                    }
+                }
+                fields.add(field.toString());
+                return fields;
+            } else {
+                field.append((char) c);
+                fieldStart = false;
+            }
+        }
+    }
+}
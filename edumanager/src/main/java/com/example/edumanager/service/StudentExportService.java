@@ -0,0 +1,148 @@
+package com.example.edumanager.service;
+
+import com.example.edumanager.entity.Student;
+import com.example.edumanager.exception.BadRequestException;
+import com.example.edumanager.repository.StudentRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+/**
+ * Streams the full student table to an output stream in constant memory.
+ *
+ * Rows are pulled from a forward-only database cursor, written out and
+ * detached from the persistence context one at a time, so heap use does
+ * not depend on how many students there are.
+ */
+@Service
+public class StudentExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentExportService.class);
+
+    /** Flush to the client every this many rows so bytes keep flowing. */
+    private static final int FLUSH_EVERY = 1000;
+
+    /**
+     * Supported export formats.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * Parse a request parameter such as "csv" or "NDJSON".
+         *
+         * @throws BadRequestException if the format is not supported
+         */
+        public static Format fromParam(String value) {
+            try {
+                return Format.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new BadRequestException(
+                        "Unsupported export format: " + value + " (expected ndjson or csv)");
+            }
+        }
+    }
+
+    private final StudentRepository studentRepository;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    public StudentExportService(StudentRepository studentRepository,
+                                EntityManager entityManager,
+                                ObjectMapper objectMapper) {
+        this.studentRepository = studentRepository;
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write every student to the given stream.
+     * The transaction stays open for the whole export so the database cursor
+     * can be read forward; nothing is accumulated in memory.
+     *
+     * @return number of rows written
+     */
+    @Transactional(readOnly = true)
+    public long export(Format format, OutputStream target) throws IOException {
+        OutputStream out = new BufferedOutputStream(target, 16 * 1024);
+        long count = 0;
+
+        if (format == Format.CSV) {
+            out.write("id,name,email,phone\n".getBytes(StandardCharsets.UTF_8));
+        }
+        // Send the header (if any) straight away so the client sees the first byte
+        out.flush();
+
+        try (Stream<Student> students = studentRepository.streamAllOrderById()) {
+            Iterator<Student> it = students.iterator();
+            while (it.hasNext()) {
+                Student student = it.next();
+                if (format == Format.CSV) {
+                    out.write(toCsvLine(student).getBytes(StandardCharsets.UTF_8));
+                } else {
+                    out.write(objectMapper.writeValueAsBytes(student));
+                    out.write('\n');
+                }
+                // Drop the entity so the persistence context does not grow
+                entityManager.detach(student);
+
+                if (++count % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+        }
+        out.flush();
+
+        logger.info("Exported {} students as {}", count, format);
+        return count;
+    }
+
+    private static String toCsvLine(Student student) {
+        return student.getId() + ","
+                + csv(student.getName()) + ","
+                + csv(student.getEmail()) + ","
+                + csv(student.getPhone()) + "\n";
+    }
+
+    /**
+     * Quote a CSV field when it contains a separator, quote or line break (RFC 4180).
+     */
+    static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.edumanager.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Bulk import settings (prefix "student-import" in application.yml).
+ *
+ * @param chunkSize     rows validated and written per transaction
+ * @param threads       imports running at the same time
+ * @param queueCapacity imports waiting for a thread; beyond that uploads get 503
+ * @param maxSize       largest accepted upload
+ * @param workDir       where uploads and error reports are kept (default: a temp directory)
+ * @param retention     how long finished jobs and their error reports are kept
+ * @param copyEnabled   use COPY on PostgreSQL (false forces JDBC batching everywhere)
+ */
+@ConfigurationProperties(prefix = "student-import")
+public record StudentImportProperties(
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("1") int threads,
+        @DefaultValue("4") int queueCapacity,
+        @DefaultValue("100MB") DataSize maxSize,
+        Path workDir,
+        @DefaultValue("1h") Duration retention,
+        @DefaultValue("true") boolean copyEnabled) {
+}
@@ -0,0 +1,607 @@
+package com.example.edumanager.service;
+
+import com.example.edumanager.dto.ImportJobStatus;
+import com.example.edumanager.dto.ImportRowError;
+import com.example.edumanager.entity.Student;
+import com.example.edumanager.exception.BadRequestException;
+import com.example.edumanager.exception.ServiceBusyException;
+import com.example.edumanager.repository.StudentRepository;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk student import, run as background jobs.
+ *
+ * Each job:
+ * 1. spools the upload to a file, so the request returns at once and parsing
+ *    does not depend on the client connection
+ * 2. reads it record by record - CSV with a header row, or a JSON array /
+ *    newline-delimited JSON objects - and checks every record against the
+ *    Student bean-validation rules
+ * 3. collects valid records into chunks of student-import.chunk-size, rejects
+ *    emails that are already taken (one query per chunk) or repeated within the
+ *    chunk, and writes the rest with StudentBulkWriter in one transaction
+ * 4. reports rejected records in a CSV error report on disk
+ *
+ * Memory use is one chunk plus the first MAX_INLINE_ERRORS errors, however
+ * large the upload. A chunk that fails as a whole (e.g. an email taken by a
+ * concurrent request) is retried row by row, so only the bad rows are lost.
+ *
+ * Jobs live in memory: status is lost on restart, and finished jobs are
+ * forgotten after student-import.retention.
+ */
+@Service
+@EnableConfigurationProperties(StudentImportProperties.class)
+public class StudentImportService implements DisposableBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentImportService.class);
+
+    /** Row errors included in the job status; the error report has all of them. */
+    public static final int MAX_INLINE_ERRORS = 20;
+
+    private static final long RETRY_AFTER_SECONDS = 30;
+
+    private static final String ERROR_REPORT_HEADER = "row,email,error\n";
+
+    /**
+     * Supported upload formats.
+     */
+    public enum Format {
+        CSV,
+        /** A JSON array of students, or one student object per line (NDJSON). */
+        JSON;
+
+        /**
+         * Pick the format from a request Content-Type such as "text/csv; charset=UTF-8".
+         *
+         * @throws BadRequestException if the type is not supported
+         */
+        public static Format fromContentType(String contentType) {
+            String type = contentType == null ? "" : contentType.toLowerCase(Locale.ROOT);
+            if (type.startsWith("text/csv")) {
+                return CSV;
+            }
+            if (type.startsWith("application/json") || type.startsWith("application/x-ndjson")) {
+                return JSON;
+            }
+            throw new BadRequestException("Unsupported import type: " + contentType
+                    + " (expected text/csv, application/json or application/x-ndjson)");
+        }
+    }
+
+    private final StudentBulkWriter bulkWriter;
+    private final StudentRepository studentRepository;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final StudentImportProperties properties;
+    private final Path workDir;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Counter rowsImported;
+    private final Counter rowsRejected;
+
+    public StudentImportService(StudentBulkWriter bulkWriter,
+                                StudentRepository studentRepository,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                StudentImportProperties properties,
+                                MeterRegistry meterRegistry) {
+        this.bulkWriter = bulkWriter;
+        this.studentRepository = studentRepository;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.workDir = properties.workDir() != null
+                ? properties.workDir()
+                : Path.of(System.getProperty("java.io.tmpdir"), "edumanager-imports");
+        try {
+            Files.createDirectories(workDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create import directory " + workDir, e);
+        }
+
+        int threads = Math.max(1, properties.threads());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.queueCapacity())), namedThreads(),
+                new ThreadPoolExecutor.AbortPolicy());
+        ExecutorServiceMetrics.monitor(meterRegistry, executor, "studentImport");
+        this.rowsImported = Counter.builder("students.import.rows")
+                .tag("result", "imported")
+                .description("Records written by bulk imports")
+                .register(meterRegistry);
+        this.rowsRejected = Counter.builder("students.import.rows")
+                .tag("result", "rejected")
+                .description("Records rejected by bulk imports")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Store an upload and queue it for import.
+     *
+     * @param body   the upload; read to the end before this returns
+     * @param format how to parse it
+     * @param owner  username of the uploader (only they and admins may see the job)
+     * @return the queued job
+     * @throws BadRequestException if the upload is empty or too large
+     * @throws ServiceBusyException     if too many imports are already waiting
+     */
+    public ImportJobStatus submit(InputStream body, Format format, String owner) throws IOException {
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw busy();
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        Path upload = workDir.resolve(jobId + ".upload");
+        long size;
+        try {
+            size = spool(body, upload);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+
+        ImportJob job = new ImportJob(jobId, format, owner, upload,
+                workDir.resolve(jobId + "-errors.csv"), size);
+        jobs.put(jobId, job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(jobId);
+            Files.deleteIfExists(upload);
+            throw busy();
+        }
+        logger.info("Queued student import {} ({}, {} bytes) for {}", jobId, format, size, owner);
+        return job.status();
+    }
+
+    /**
+     * Current status of a job, if it exists (and has not expired).
+     */
+    public Optional<ImportJobStatus> findJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(ImportJob::status);
+    }
+
+    /**
+     * Copy a job's error report (CSV: row,email,error) to the given stream.
+     * While the job runs this is the report so far.
+     */
+    public void writeErrorReport(String jobId, OutputStream out) throws IOException {
+        ImportJob job = jobs.get(jobId);
+        if (job != null && Files.exists(job.errorReport)) {
+            Files.copy(job.errorReport, out);
+        } else {
+            out.write(ERROR_REPORT_HEADER.getBytes(StandardCharsets.UTF_8));
+        }
+        out.flush();
+    }
+
+    /**
+     * Forget finished jobs older than the retention period and delete their reports.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void purgeFinishedJobs() {
+        Instant cutoff = Instant.now().minus(properties.retention());
+        jobs.values().removeIf(job -> {
+            if (job.finishedAt == null || job.finishedAt.isAfter(cutoff)) {
+                return false;
+            }
+            deleteQuietly(job.errorReport);
+            return true;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    private void run(ImportJob job) {
+        job.state = ImportJobStatus.State.RUNNING;
+        long start = System.currentTimeMillis();
+        try (InputStream in = new CountingInputStream(Files.newInputStream(job.upload), job.bytesRead);
+             BufferedWriter report = Files.newBufferedWriter(job.errorReport, StandardCharsets.UTF_8)) {
+            report.write(ERROR_REPORT_HEADER);
+
+            RecordSource records = job.format == Format.CSV ? new CsvRecords(in) : new JsonRecords(in);
+            List<ParsedRecord> chunk = new ArrayList<>(properties.chunkSize());
+            String fatal = null;
+            while (true) {
+                ParsedRecord record;
+                try {
+                    record = records.next();
+                } catch (IOException e) {
+                    // Malformed input: nothing after this point can be read reliably
+                    fatal = "Record " + (job.rowsRead.get() + 1) + " could not be read: "
+                            + (e instanceof JsonProcessingException json ? json.getOriginalMessage() : e.getMessage());
+                    break;
+                }
+                if (record == null) {
+                    break;
+                }
+                job.rowsRead.incrementAndGet();
+
+                String error = record.error() != null ? record.error() : validate(record.student());
+                if (error != null) {
+                    reject(job, report, record, error);
+                } else {
+                    chunk.add(record);
+                    if (chunk.size() >= properties.chunkSize()) {
+                        writeChunk(job, chunk, report);
+                        chunk.clear();
+                    }
+                }
+            }
+            writeChunk(job, chunk, report);
+            job.finish(fatal == null ? ImportJobStatus.State.COMPLETED : ImportJobStatus.State.FAILED, fatal);
+        } catch (Exception e) {
+            logger.error("Student import {} failed", job.id, e);
+            job.finish(ImportJobStatus.State.FAILED, e.getMessage());
+        } finally {
+            deleteQuietly(job.upload);
+        }
+        logger.info("Student import {} {}: {} read, {} imported, {} rejected in {} ms",
+                job.id, job.state, job.rowsRead.get(), job.rowsImported.get(), job.rowsFailed.get(),
+                System.currentTimeMillis() - start);
+    }
+
+    private void writeChunk(ImportJob job, List<ParsedRecord> chunk, Writer report) throws IOException {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        Set<String> emails = chunk.stream()
+                .map(record -> record.student().getEmail())
+                .collect(Collectors.toSet());
+        Set<String> taken = new HashSet<>(studentRepository.findExistingEmails(emails));
+        Set<String> seen = new HashSet<>();
+        List<ParsedRecord> accepted = new ArrayList<>(chunk.size());
+        for (ParsedRecord record : chunk) {
+            String email = record.student().getEmail();
+            if (taken.contains(email)) {
+                reject(job, report, record, "Email already exists");
+            } else if (!seen.add(email)) {
+                reject(job, report, record, "Email appears more than once in this import");
+            } else {
+                accepted.add(record);
+            }
+        }
+
+        try {
+            bulkWriter.insert(accepted.stream().map(ParsedRecord::student).toList());
+            job.imported(accepted.size());
+            rowsImported.increment(accepted.size());
+        } catch (RuntimeException e) {
+            logger.warn("Student import {}: chunk of {} failed ({}), retrying row by row", job.id,
+                    accepted.size(), NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            for (ParsedRecord record : accepted) {
+                try {
+                    bulkWriter.insert(List.of(record.student()));
+                    job.imported(1);
+                    rowsImported.increment();
+                } catch (RuntimeException rowFailure) {
+                    reject(job, report, record, "Could not be saved: "
+                            + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+        report.flush();
+    }
+
+    private void reject(ImportJob job, Writer report, ParsedRecord record, String error) throws IOException {
+        ImportRowError rowError = new ImportRowError(record.row(), record.email(), error);
+        job.rejected(rowError);
+        rowsRejected.increment();
+        report.write(rowError.row() + "," + StudentExportService.csv(rowError.email()) + ","
+                + StudentExportService.csv(rowError.error()) + "\n");
+    }
+
+    private String validate(Student student) {
+        Set<ConstraintViolation<Student>> violations = validator.validate(student);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private long spool(InputStream body, Path target) throws IOException {
+        long limit = properties.maxSize().toBytes();
+        long total = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (OutputStream out = Files.newOutputStream(target)) {
+            int n;
+            while ((n = body.read(buffer)) != -1) {
+                total += n;
+                if (total > limit) {
+                    throw new BadRequestException("Import is larger than "
+                            + properties.maxSize().toMegabytes() + " MB");
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+        if (total == 0) {
+            throw new BadRequestException("Import is empty");
+        }
+        return total;
+    }
+
+    private static ServiceBusyException busy() {
+        return new ServiceBusyException("Too many imports in progress, please retry later",
+                RETRY_AFTER_SECONDS);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    private static ThreadFactory namedThreads() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "student-import-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * One record of an upload: a student to validate, or why it could not be read.
+     */
+    private record ParsedRecord(long row, Student student, String email, String error) {
+
+        static ParsedRecord of(long row, Student student) {
+            return new ParsedRecord(row, student, student.getEmail(), null);
+        }
+    }
+
+    /**
+     * Sequential reader over the records of an upload.
+     */
+    private interface RecordSource {
+
+        /**
+         * @return the next record, or null at the end of the input
+         * @throws IOException if the input is malformed beyond this point
+         */
+        ParsedRecord next() throws IOException;
+    }
+
+    /**
+     * CSV with a header row; name and email columns are required, phone is
+     * optional and any other column (e.g. id from an export) is ignored.
+     */
+    private static final class CsvRecords implements RecordSource {
+
+        private final StudentCsvReader reader;
+        private final int nameColumn;
+        private final int emailColumn;
+        private final int phoneColumn;
+        private long row;
+
+        CsvRecords(InputStream in) throws IOException {
+            this.reader = new StudentCsvReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            List<String> header = reader.readRecord();
+            if (header == null) {
+                throw new IOException("CSV input is empty");
+            }
+            List<String> columns = header.stream()
+                    .map(column -> column.trim().toLowerCase(Locale.ROOT))
+                    .toList();
+            this.nameColumn = columns.indexOf("name");
+            this.emailColumn = columns.indexOf("email");
+            this.phoneColumn = columns.indexOf("phone");
+            if (nameColumn < 0 || emailColumn < 0) {
+                throw new IOException("CSV header must have name and email columns, got: "
+                        + String.join(",", header));
+            }
+        }
+
+        @Override
+        public ParsedRecord next() throws IOException {
+            List<String> fields;
+            do {
+                fields = reader.readRecord();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.stream().allMatch(String::isBlank));
+
+            Student student = new Student(field(fields, nameColumn),
+                    field(fields, emailColumn), field(fields, phoneColumn));
+            return ParsedRecord.of(++row, student);
+        }
+
+        private static String field(List<String> fields, int column) {
+            if (column < 0 || column >= fields.size()) {
+                return null;
+            }
+            String value = fields.get(column).trim();
+            return value.isEmpty() ? null : value;
+        }
+    }
+
+    /**
+     * A JSON array of student objects, or a sequence of top-level objects
+     * (newline-delimited JSON). Only name, email and phone are used.
+     */
+    private final class JsonRecords implements RecordSource {
+
+        private final JsonParser parser;
+        private final boolean array;
+        private JsonToken pending;
+        private long row;
+
+        JsonRecords(InputStream in) throws IOException {
+            this.parser = objectMapper.getFactory().createParser(in);
+            JsonToken first = parser.nextToken();
+            if (first == null) {
+                throw new IOException("JSON input is empty");
+            }
+            this.array = first == JsonToken.START_ARRAY;
+            this.pending = array ? null : first;
+        }
+
+        @Override
+        public ParsedRecord next() throws IOException {
+            JsonToken token = pending != null ? pending : parser.nextToken();
+            pending = null;
+            if (token == null || (array && token == JsonToken.END_ARRAY)) {
+                return null;
+            }
+            row++;
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                return new ParsedRecord(row, null, null, "Expected a JSON object");
+            }
+
+            JsonNode node = objectMapper.readTree(parser);
+            try {
+                Student student = objectMapper.treeToValue(node, Student.class);
+                student.setId(null);
+                return ParsedRecord.of(row, student);
+            } catch (JsonProcessingException e) {
+                JsonNode email = node.get("email");
+                return new ParsedRecord(row, null, email != null ? email.asText() : null,
+                        "Invalid record: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    /**
+     * Counts bytes read, for progress reporting.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                count.incrementAndGet();
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count.addAndGet(n);
+            }
+            return n;
+        }
+    }
+
+    /**
+     * Mutable state of one job; counters are updated by the import thread
+     * and read by status requests.
+     */
+    private static final class ImportJob {
+
+        final String id;
+        final Format format;
+        final String owner;
+        final Path upload;
+        final Path errorReport;
+        final long size;
+        final Instant submittedAt = Instant.now();
+        final AtomicLong bytesRead = new AtomicLong();
+        final AtomicLong rowsRead = new AtomicLong();
+        final AtomicLong rowsImported = new AtomicLong();
+        final AtomicLong rowsFailed = new AtomicLong();
+        final List<ImportRowError> firstErrors = new CopyOnWriteArrayList<>();
+        volatile ImportJobStatus.State state = ImportJobStatus.State.QUEUED;
+        volatile Instant finishedAt;
+        volatile String message;
+
+        ImportJob(String id, Format format, String owner, Path upload, Path errorReport, long size) {
+            this.id = id;
+            this.format = format;
+            this.owner = owner;
+            this.upload = upload;
+            this.errorReport = errorReport;
+            this.size = size;
+        }
+
+        void imported(long rows) {
+            rowsImported.addAndGet(rows);
+        }
+
+        void rejected(ImportRowError error) {
+            if (rowsFailed.incrementAndGet() <= MAX_INLINE_ERRORS) {
+                firstErrors.add(error);
+            }
+        }
+
+        void finish(ImportJobStatus.State finalState, String finalMessage) {
+            message = finalMessage;
+            finishedAt = Instant.now();
+            state = finalState;
+        }
+
+        ImportJobStatus status() {
+            ImportJobStatus.State current = state;
+            int percent = current == ImportJobStatus.State.COMPLETED ? 100
+                    : (int) Math.min(99, bytesRead.get() * 100 / Math.max(1, size));
+            return new ImportJobStatus(id, current, format.name().toLowerCase(Locale.ROOT), owner,
+                    rowsRead.get(), rowsImported.get(), rowsFailed.get(), percent,
+                    submittedAt, finishedAt, message, List.copyOf(firstErrors));
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.edumanager.service;
+
+import com.example.edumanager.config.ReadReplicaRoutingDataSource;
+import com.example.edumanager.entity.Student;
+import com.example.edumanager.event.StudentChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of name-search results, keyed by normalized query.
+ * 
+ * Any student write bumps a global generation counter. Each entry remembers
+ * the generation it was loaded under and is treated as a miss once the
+ * counter has moved on, so invalidation is O(1) and stale entries are simply
+ * replaced on their next lookup (or aged out by the cache's size/TTL policy).
+ * Results read from a (possibly lagging) replica are returned but not cached.
+ * Entries hold detached copies of the students and every hit gets its own
+ * copies, so callers never share (or modify) cached state.
+ * 
+ * Metrics (Micrometer):
+ * - students.search{cache=hit|miss|stale}: count and latency per lookup outcome;
+ *   hit ratio = hit / (hit + miss + stale)
+ */
+@Component
+public class StudentSearchCache {
+
+    public static final String STUDENT_SEARCHES = "studentSearches";
+
+    private record CachedResult(long generation, List<Student> students) {
+    }
+
+    private final Cache cache;
+    private final AtomicLong generation = new AtomicLong();
+    private final Timer hitTimer;
+    private final Timer missTimer;
+    private final Timer staleTimer;
+
+    public StudentSearchCache(CacheManager cacheManager, MeterRegistry meterRegistry) {
+        this.cache = Objects.requireNonNull(cacheManager.getCache(STUDENT_SEARCHES),
+                "Cache '" + STUDENT_SEARCHES + "' is not configured");
+        this.hitTimer = searchTimer(meterRegistry, "hit");
+        this.missTimer = searchTimer(meterRegistry, "miss");
+        this.staleTimer = searchTimer(meterRegistry, "stale");
+    }
+
+    /**
+     * Return cached results for the key if they are from the current generation,
+     * otherwise run the loader and cache its result.
+     */
+    public List<Student> get(String key, Supplier<List<Student>> loader) {
+        long start = System.nanoTime();
+        // Read the generation before loading: if a write lands while we query,
+        // the entry is already stale when stored and will not be served.
+        long current = generation.get();
+        CachedResult entry = cache.get(key, CachedResult.class);
+
+        if (entry != null && entry.generation() == current) {
+            hitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return copiesOf(entry.students());
+        }
+
+        long replicaMark = ReadReplicaRoutingDataSource.replicaReadMark();
+        List<Student> students = loader.get();
+        if (!ReadReplicaRoutingDataSource.readFromReplicaSince(replicaMark)) {
+            cache.put(key, new CachedResult(current, copiesOf(students)));
+        }
+        (entry == null ? missTimer : staleTimer)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return students;
+    }
+
+    /**
+     * Current generation (number of committed student writes seen so far).
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    /**
+     * Any committed student write invalidates every cached search.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStudentChanged(StudentChangedEvent event) {
+        generation.incrementAndGet();
+    }
+
+    private static List<Student> copiesOf(List<Student> students) {
+        return students.stream().map(StudentCache::copyOf).toList();
+    }
+
+    private static Timer searchTimer(MeterRegistry registry, String outcome) {
+        return Timer.builder("students.search")
+                .description("Name search latency by cache outcome")
+                .tag("cache", outcome)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(registry);
+    }
+}
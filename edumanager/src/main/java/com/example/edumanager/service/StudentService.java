@@ -1,25 +1,86 @@
 package com.example.edumanager.service;
 
+import com.example.edumanager.dto.CursorPage;
+import com.example.edumanager.dto.StudentBatchResult;
+import com.example.edumanager.dto.StudentIdsRequest;
+import com.example.edumanager.dto.StudentPatch;
+import com.example.edumanager.dto.StudentSort;
+import com.example.edumanager.dto.StudentVersion;
 import com.example.edumanager.entity.Student;
+import com.example.edumanager.event.StudentChangedEvent;
+import com.example.edumanager.exception.BadRequestException;
+import com.example.edumanager.exception.VersionConflictException;
 import com.example.edumanager.repository.StudentRepository;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service layer for Student business logic.
  * Handles all student-related operations.
+ * 
+ * Every write publishes a {@link StudentChangedEvent} so derived read
+ * models (search index, caches) can follow along after commit, and so
+ * {@link StudentChangeLog} records it in the same transaction.
  */
 @Service
 @Transactional
 public class StudentService {
 
+    /** Page size used when the client does not ask for one. */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /** Upper bound on page size so a single request can never pull the whole table. */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /** Search results returned when the client does not ask for a page size. */
+    public static final int DEFAULT_SEARCH_LIMIT = 20;
+
+    /** Upper bound on search page size. */
+    public static final int MAX_SEARCH_LIMIT = 100;
+
+    /** Shortest term matched as a substring; shorter terms are matched as a name prefix. */
+    public static final int MIN_SUBSTRING_LENGTH = 3;
+
+    // Cursor kind of search pages (listing cursors carry their StudentSort instead)
+    private static final String SEARCH_CURSOR = "SEARCH";
+
     private final StudentRepository studentRepository;
+    private final StudentCache studentCache;
+    private final StudentSearchCache studentSearchCache;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityManager entityManager;
+    private final int batchSize;
 
-    public StudentService(StudentRepository studentRepository) {
+    public StudentService(StudentRepository studentRepository,
+                          StudentCache studentCache,
+                          StudentSearchCache studentSearchCache,
+                          ApplicationEventPublisher eventPublisher,
+                          EntityManager entityManager,
+                          @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize) {
         this.studentRepository = studentRepository;
+        this.studentCache = studentCache;
+        this.studentSearchCache = studentSearchCache;
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+        this.batchSize = Math.max(1, batchSize);
     }
 
     /**
@@ -31,62 +92,371 @@ public class StudentService {
     }
 
     /**
-     * Find a student by ID.
+     * Get one keyset page of students.
+     *
+     * Each page is a single index range scan starting at the cursor position,
+     * so cost stays the same for page 1 and page 10,000.
+     *
+     * @param sort  stable sort order
+     * @param after opaque cursor from a previous page, or null for the first page
+     * @param limit requested page size (clamped to 1..MAX_PAGE_SIZE)
      */
     @Transactional(readOnly = true)
+    public CursorPage<Student> findPage(StudentSort sort, String after, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // Fetch one extra row to find out whether another page exists
+        Limit fetch = Limit.of(pageSize + 1);
+        String[] cursor = after == null || after.isBlank() ? null : decodeCursor(after, sort.name());
+
+        List<Student> rows = switch (sort) {
+            case ID -> studentRepository.findPageOrderById(
+                    cursor == null ? 0L : parseCursorId(cursor), fetch);
+            case NAME -> cursor == null
+                    ? studentRepository.findFirstPageOrderByName(fetch)
+                    : studentRepository.findPageOrderByName(cursor[1], parseCursorId(cursor), fetch);
+            case EMAIL -> cursor == null
+                    ? studentRepository.findFirstPageOrderByEmail(fetch)
+                    : studentRepository.findPageOrderByEmail(cursor[1], fetch);
+        };
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Student last = rows.get(pageSize - 1);
+            String key = switch (sort) {
+                case ID -> "";
+                case NAME -> last.getName();
+                case EMAIL -> last.getEmail();
+            };
+            nextCursor = encodeCursor(sort.name(), last.getId(), key);
+        }
+        return new CursorPage<>(List.copyOf(rows), nextCursor, pageSize,
+                sort.name().toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * Find a student by ID (read-through cached).
+     * SUPPORTS: a cache hit should not open a transaction or borrow a connection;
+     * on a miss the repository call runs in its own read-only transaction.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Student> findById(Long id) {
-        return studentRepository.findById(id);
+        return studentCache.getById(id, studentRepository::findById);
     }
 
     /**
-     * Find a student by email.
+     * Find the students with the given ids, in the order given.
+     *
+     * Cached students are served from the cache; all others are loaded with a
+     * single IN (...) query. Repeated ids are answered once.
+     *
+     * @throws BadRequestException for more than StudentIdsRequest.MAX_IDS distinct ids
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<StudentBatchResult> findAllById(Collection<Long> ids) {
+        Set<Long> distinct = distinctIds(ids);
+        Map<Long, Student> found = studentCache.getAllById(distinct, studentRepository::findAllById);
+        List<StudentBatchResult> results = new ArrayList<>(distinct.size());
+        for (Long id : distinct) {
+            Student student = found.get(id);
+            results.add(student != null ? StudentBatchResult.found(student) : StudentBatchResult.notFound(id));
+        }
+        return results;
+    }
+
+    /**
+     * Find only the version and modification time of a student.
+     * Served from the student cache when possible, otherwise by a two-column query.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<StudentVersion> findVersion(Long id) {
+        Student cached = studentCache.peek(id);
+        if (cached != null) {
+            return Optional.of(StudentVersion.of(cached));
+        }
+        return studentRepository.findVersionById(id);
+    }
+
+    /**
+     * Find a student by email (read-through cached).
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<Student> findByEmail(String email) {
-        return studentRepository.findByEmail(email);
+        return studentCache.getByEmail(email, studentRepository::findById, studentRepository::findByEmail);
     }
 
     /**
-     * Search students by name.
+     * Search students by name (case-insensitive), one keyset page at a time
+     * in (lower(name), id) order.
+     *
+     * Terms of MIN_SUBSTRING_LENGTH characters or more match anywhere in the
+     * name (trigram index); shorter terms match the start of the name (name
+     * key index), because one- and two-letter substrings match nearly every
+     * row and the trigram index cannot look them up.
+     *
+     * @param name  search term
+     * @param after opaque cursor from a previous search page, or null for the first page
+     * @param limit page size (clamped to 1..MAX_SEARCH_LIMIT)
+     * 
+     * Results are cached per normalized query and page (see StudentSearchCache).
      */
-    @Transactional(readOnly = true)
-    public List<Student> searchByName(String name) {
-        return studentRepository.findByNameContainingIgnoreCase(name);
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public CursorPage<Student> searchByName(String name, String after, int limit) {
+        String term = name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+        int pageSize = Math.max(1, Math.min(limit, MAX_SEARCH_LIMIT));
+        if (term.isEmpty()) {
+            return new CursorPage<>(List.of(), null, pageSize, "name");
+        }
+        String[] cursor = after == null || after.isBlank() ? null : decodeCursor(after, SEARCH_CURSOR);
+        String afterName = cursor == null ? null : cursor[1];
+        long afterId = cursor == null ? 0L : parseCursorId(cursor);
+
+        String pattern = nameLikePattern(term);
+        String cacheKey = term + "|" + (cursor == null ? "" : after) + "|" + pageSize;
+        // Fetch one extra row to find out whether another page exists
+        List<Student> rows = studentSearchCache.get(cacheKey,
+                () -> studentRepository.searchByName(pattern, afterName, afterId, pageSize + 1));
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            Student last = rows.get(pageSize - 1);
+            nextCursor = encodeCursor(SEARCH_CURSOR, last.getId(), last.getName());
+        }
+        return new CursorPage<>(List.copyOf(rows), nextCursor, pageSize, "name");
+    }
+
+    /**
+     * Create a student unless its email is taken.
+     *
+     * One conditional INSERT (see StudentRepositoryCustom#insertIfEmailAbsent)
+     * replaces the usual exists-check plus insert: one round trip less, and two
+     * concurrent creates with the same email cannot both pass a check and then
+     * collide on the unique constraint. Any id the student carries is ignored.
+     *
+     * @return the created student, or empty if the email already exists
+     */
+    public Optional<Student> create(Student student) {
+        student.setId(null);
+        if (!studentRepository.insertIfEmailAbsent(student)) {
+            return Optional.empty();
+        }
+        eventPublisher.publishEvent(StudentChangedEvent.created(student));
+        return Optional.of(student);
     }
 
     /**
      * Create or update a student.
      */
     public Student save(Student student) {
-        return studentRepository.save(student);
+        boolean isNew = student.getId() == null;
+        Student saved = studentRepository.save(student);
+        eventPublisher.publishEvent(isNew
+                ? StudentChangedEvent.created(saved)
+                : StudentChangedEvent.updated(saved));
+        return saved;
+    }
+
+    /**
+     * Create many students in one transaction.
+     *
+     * Rows are persisted in chunks of the JDBC batch size: each chunk is flushed
+     * as one batched INSERT (ids come from the pooled sequence, no round trip per
+     * row) and then detached, so the persistence context stays small however
+     * many rows are passed in. Students that already have an id are merged
+     * instead, which costs a SELECT each.
+     *
+     * The persistence context is cleared after every chunk, so entities the
+     * caller loaded earlier in the same transaction become detached.
+     *
+     * @return the saved students, with ids assigned (detached)
+     */
+    public List<Student> saveAll(List<Student> students) {
+        List<Student> saved = new ArrayList<>(students.size());
+        BitSet created = new BitSet(students.size());
+        for (Student student : students) {
+            if (student.getId() == null) {
+                entityManager.persist(student);
+                created.set(saved.size());
+                saved.add(student);
+            } else {
+                saved.add(entityManager.merge(student));
+            }
+            if (saved.size() % batchSize == 0) {
+                flushChunk(saved, created, saved.size() - batchSize);
+            }
+        }
+        if (saved.size() % batchSize != 0) {
+            flushChunk(saved, created, saved.size() - saved.size() % batchSize);
+        }
+        return saved;
+    }
+
+    // Write saved[from..], detach it and publish its events (ids, versions and timestamps are set by now)
+    private void flushChunk(List<Student> saved, BitSet created, int from) {
+        entityManager.flush();
+        entityManager.clear();
+        for (int i = from; i < saved.size(); i++) {
+            Student student = saved.get(i);
+            eventPublisher.publishEvent(created.get(i)
+                    ? StudentChangedEvent.created(student)
+                    : StudentChangedEvent.updated(student));
+        }
     }
 
     /**
-     * Update an existing student.
+     * Replace name, email and phone of an existing student.
+     *
+     * Same as a patch carrying all three fields: one UPDATE, no read first.
+     *
+     * @param expectedVersion only update if the student is still at this version; null for any version
+     * @return the updated student, or empty if there is no student with this id
+     * @throws VersionConflictException if the student exists at another version
      */
-    public Optional<Student> update(Long id, Student studentDetails) {
-        return studentRepository.findById(id)
-                .map(existingStudent -> {
-                    existingStudent.setName(studentDetails.getName());
-                    existingStudent.setEmail(studentDetails.getEmail());
-                    existingStudent.setPhone(studentDetails.getPhone());
-                    return studentRepository.save(existingStudent);
-                });
+    public Optional<Student> update(Long id, Student studentDetails, Long expectedVersion) {
+        return patch(id, new StudentPatch(studentDetails.getName(),
+                studentDetails.getEmail(), studentDetails.getPhone()), expectedVersion);
     }
 
     /**
-     * Delete a student by ID.
+     * Change only the fields present in the patch.
+     *
+     * A single conditional UPDATE (WHERE id = ? AND version = ?) that returns the
+     * written row, so the row is neither read beforehand nor locked for longer
+     * than that one statement. Only when nothing was updated is the current
+     * version looked up, to tell a missing student from a stale version.
+     *
+     * @param expectedVersion only update if the student is still at this version; null for any version
+     * @return the updated student, or empty if there is no student with this id
+     * @throws BadRequestException if the patch contains no fields
+     * @throws VersionConflictException if the student exists at another version
      */
-    public void deleteById(Long id) {
-        studentRepository.deleteById(id);
+    public Optional<Student> patch(Long id, StudentPatch patch, Long expectedVersion) {
+        if (patch.isEmpty()) {
+            throw new BadRequestException("Nothing to update: give at least one of name, email, phone");
+        }
+        Optional<Student> patched = studentRepository.patch(id, expectedVersion, patch);
+        if (patched.isPresent()) {
+            eventPublisher.publishEvent(StudentChangedEvent.updated(patched.get()));
+            return patched;
+        }
+        if (expectedVersion != null) {
+            studentRepository.findVersionById(id).ifPresent(current -> {
+                throw new VersionConflictException("Student " + id + " is at version "
+                        + current.version() + ", not " + expectedVersion, current);
+            });
+        }
+        return Optional.empty();
     }
 
     /**
-     * Check if a student with the given email exists.
+     * Delete a student by ID with a single DELETE statement.
+     * Goes through the returning batch delete, which evicts just this student
+     * from the second-level cache (a JPQL bulk DELETE would empty the region).
+     *
+     * @return true if the student existed
      */
-    @Transactional(readOnly = true)
-    public boolean existsByEmail(String email) {
-        return studentRepository.existsByEmail(email);
+    public boolean deleteById(Long id) {
+        if (studentRepository.deleteAllByIdReturningIds(List.of(id)).isEmpty()) {
+            return false;
+        }
+        eventPublisher.publishEvent(StudentChangedEvent.deleted(id));
+        return true;
+    }
+
+    /**
+     * Delete the students with the given ids with a single DELETE ... IN (...)
+     * statement, and report per id (in the order given) whether it existed.
+     *
+     * @throws BadRequestException for more than StudentIdsRequest.MAX_IDS distinct ids
+     */
+    public List<StudentBatchResult> deleteAllById(Collection<Long> ids) {
+        Set<Long> distinct = distinctIds(ids);
+        Set<Long> deleted = new HashSet<>(studentRepository.deleteAllByIdReturningIds(distinct));
+        List<StudentBatchResult> results = new ArrayList<>(distinct.size());
+        for (Long id : distinct) {
+            if (deleted.contains(id)) {
+                eventPublisher.publishEvent(StudentChangedEvent.deleted(id));
+                results.add(StudentBatchResult.deleted(id));
+            } else {
+                results.add(StudentBatchResult.notFound(id));
+            }
+        }
+        return results;
+    }
+
+    private static Set<Long> distinctIds(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        if (distinct.isEmpty() || distinct.contains(null)) {
+            throw new BadRequestException("Give at least one id, and no null ids");
+        }
+        if (distinct.size() > StudentIdsRequest.MAX_IDS) {
+            throw new BadRequestException("At most " + StudentIdsRequest.MAX_IDS + " ids per request");
+        }
+        return distinct;
+    }
+
+    // Cursor format: base64url("<kind>|<id>|<sort key>"), where kind is the listing sort
+    // or SEARCH_CURSOR. Neither kind nor id contains '|', so everything after the second
+    // separator is the sort key verbatim.
+    private static String encodeCursor(String kind, Long id, String key) {
+        String raw = kind + "|" + id + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor into { id, sort key }.
+     *
+     * @throws BadRequestException if the cursor is malformed or was issued for another kind of page
+     */
+    private static String[] decodeCursor(String cursor, String kind) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            parts = raw.split("\\|", 3);
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+        if (parts.length < 3) {
+            throw new BadRequestException("Invalid cursor: " + cursor);
+        }
+        if (!parts[0].equals(kind)) {
+            throw new BadRequestException("Cursor was issued for " + describeCursorKind(parts[0])
+                    + ", not " + describeCursorKind(kind));
+        }
+        return new String[] { parts[1], parts[2] };
+    }
+
+    private static String describeCursorKind(String kind) {
+        return SEARCH_CURSOR.equals(kind) ? "a name search" : "sort=" + kind.toLowerCase(Locale.ROOT);
+    }
+
+    private static long parseCursorId(String[] cursor) {
+        try {
+            return Long.parseLong(cursor[0]);
+        } catch (NumberFormatException e) {
+            throw new BadRequestException("Invalid cursor id: " + cursor[0]);
+        }
     }
-}
 
+    /**
+     * LIKE pattern for a trimmed, lower-cased name search term: substring match
+     * from MIN_SUBSTRING_LENGTH characters on, prefix match below that.
+     */
+    public static String nameLikePattern(String term) {
+        String escaped = escapeLike(term);
+        return term.length() >= MIN_SUBSTRING_LENGTH
+                ? "%" + escaped + "%"
+                : escaped + "%";
+    }
+
+    /**
+     * Escape LIKE wildcards so user input is matched literally (escape character '\').
+     */
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+    }
+}
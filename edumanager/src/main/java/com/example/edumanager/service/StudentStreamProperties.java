@@ -0,0 +1,38 @@
+package com.example.edumanager.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Student change stream settings (prefix "student-stream" in application.yml).
+ *
+ * @param bufferSize          recent changes kept in memory; a client reconnecting with a
+ *                            Last-Event-ID still in the buffer resumes without reloading
+ * @param sendThreads         threads writing to subscribers; only streams with something to
+ *                            send use one, and a write never waits for a client
+ * @param maxSubscribers      open streams per instance; beyond that new ones get 503
+ * @param slowConsumerTimeout how long new changes wait for a subscriber that has not yet sent
+ *                            the changes they would push out of the buffer; a subscriber still
+ *                            behind after that is disconnected
+ * @param writeTimeout        how long a client may take no data at all before its stream is
+ *                            disconnected (checked at each heartbeat)
+ * @param pollInterval        how often the change log is read when no local write wakes
+ *                            the stream up (picks up writes made by other instances)
+ * @param heartbeatInterval   how often idle streams get a comment line, so proxies keep
+ *                            them open and dead clients are noticed
+ * @param timeout             how long one stream stays open; the browser then reconnects
+ *                            and resumes
+ */
+@ConfigurationProperties(prefix = "student-stream")
+public record StudentStreamProperties(
+        @DefaultValue("10000") int bufferSize,
+        @DefaultValue("8") int sendThreads,
+        @DefaultValue("10000") int maxSubscribers,
+        @DefaultValue("5s") Duration slowConsumerTimeout,
+        @DefaultValue("30s") Duration writeTimeout,
+        @DefaultValue("1s") Duration pollInterval,
+        @DefaultValue("30s") Duration heartbeatInterval,
+        @DefaultValue("30m") Duration timeout) {
+}